@@ -1,11 +1,8 @@
 package artificalintelligence;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import kawaiiklash.AABB;
 import kawaiiklash.Collideable;
 import kawaiiklash.Drawable;
 import kawaiiklash.Game;
@@ -15,7 +12,6 @@ import kawaiiklash.Monster;
 import kawaiiklash.Platform;
 import kawaiiklash.Rect;
 import kawaiiklash.Updateable;
-import kawaiiklash.Vector;
 import hackthemarket.Allele;
 import hackthemarket.Bound;
 import hackthemarket.GeneticAlgorithm;
@@ -38,7 +34,7 @@ import org.newdawn.slick.state.StateBasedGame;
 public class GameAI extends GameImpl {
 
     private BoxArray boxes;
-    private QuadTree quad;
+    private List<Collideable> found;
     private Population pop;
     private Genome genome;
     private NeuralNetwork ai;
@@ -68,10 +64,7 @@ public class GameAI extends GameImpl {
             throws SlickException {
         super.init(gc, master);
 
-        final Rect screen = getScreen();
-        final Vector qCenter = new Vector(screen.getWidth() / 2, screen.getHeight() / 2);
-        final AABB qBounds = new AABB(qCenter, screen.getWidth(), screen.getHeight());
-        quad = new QuadTree(0, qBounds);
+        found = new ArrayList<>(50);
     }
 
     private void lazyInit() {
@@ -115,8 +108,8 @@ public class GameAI extends GameImpl {
     public void update(GameContainer gc, StateBasedGame master, int dt) throws SlickException {
         super.update(gc, master, dt);
 
-        if (dt >= MINIMUM_TIME_RESOLUTION) {
-            dt = MINIMUM_TIME_RESOLUTION;
+        if (dt >= MAXIMUM_FRAME_TIME) {
+            dt = MAXIMUM_FRAME_TIME;
         }
 
         // Lazy initialization because of the poor player init system
@@ -135,28 +128,14 @@ public class GameAI extends GameImpl {
         // Keep the boxes centered on the player
         boxes.update(dt);
 
-        // Check collisions
-        List<Object> objects = getObjects();
-        int numObjects = objects.size();
-        List<Collideable> cols = new ArrayList<>(numObjects);
-        for (int i = 0; i < numObjects; i++) {
-            Object o = objects.get(i);
-            if (o instanceof Monster || o instanceof Platform) {
-                cols.add((Collideable) o);
-            }
-        }
-
-        // Employ a quad tree to improve efficiency
+        // Check collisions against the game's spatial index
+        refreshIndex();
         Box[] boxArray = boxes.boxes();
-        quad.clear();
-        for (final Collideable col : cols) {
-            quad.insert(col);
-        }
         for (int i = 0; i < boxArray.length; i++) {
-            Set<Collideable> set = new HashSet<>(50);
-            set = quad.retrieve(set, boxArray[i]);
-            for (Collideable c : set) {
-                if (c.collidesWith(boxArray[i])) {
+            found.clear();
+            query(boxArray[i].getHitbox(), found);
+            for (Collideable c : found) {
+                if ((c instanceof Monster || c instanceof Platform) && c.collidesWith(boxArray[i])) {
                     boxArray[i].collidedWith(c);
                 }
             }
@@ -206,7 +185,10 @@ public class GameAI extends GameImpl {
 
         // Draw the boxes for debugging
         if (debugging()) {
+            final Rect screen = getScreen();
+            g.translate((float) -screen.getX(), (float) -screen.getY());
             boxes.draw(g);
+            g.resetTransform();
         }
     }
 
@@ -0,0 +1,431 @@
+package kawaiiklash;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+import org.newdawn.slick.opengl.ImageData;
+import org.newdawn.slick.opengl.ImageDataFactory;
+import org.newdawn.slick.opengl.LoadableImageData;
+import org.newdawn.slick.util.ResourceLoader;
+
+/**
+ * The {@code AssetPreloader} loads the sprites and sounds of a level in
+ * the background. Otherwise, the assets of an object are loaded the first
+ * time one is created, so the first monster from a spawner, the first
+ * attack or the first dropped item makes the game stutter.
+ * <p>
+ * When a level starts, the preloader reads the names of the objects in
+ * the level file, along with the monsters and tiles that they name, the
+ * attacks of the player and the objects that every level uses, and finds
+ * their sprite and sound references in the {@link Bank}. Worker threads
+ * then read and decode the images and read the sound files. Textures and
+ * sound buffers can only be made on the main thread, so the game polls
+ * the preloader every update, and it hands a few of the decoded data
+ * files at a time to the {@link SpriteLoader} and {@link SoundLoader}.
+ * <p>
+ * The loaders take the decoded data from the preloader when they have
+ * it, and read the files themselves when they do not, so nothing depends
+ * on the preloader being done.
+ *
+ * @author Jeff Niu
+ */
+public class AssetPreloader {
+
+    /**
+     * The number of data files that are loaded on each poll.
+     */
+    public static final int BATCH = 2;
+
+    /**
+     * The number of worker threads.
+     */
+    public static final int WORKERS = 2;
+
+    /**
+     * The objects that every level uses, other than the player type.
+     */
+    private static final String[] COMMON = {"Player", "Tombstone", "HealthBar", "HealthBarIndicator", "Item"};
+
+    /**
+     * The single instance of this class.
+     */
+    private static AssetPreloader preloader;
+
+    /**
+     * Get the single instance of this class.
+     *
+     * @return
+     */
+    public static AssetPreloader get() {
+        if (preloader == null) {
+            preloader = new AssetPreloader();
+        }
+        return preloader;
+    }
+
+    /**
+     * A data file whose images or sounds have been decoded.
+     */
+    private static class Ready {
+
+        private final int generation;
+        private final String ref;
+        private final boolean sprites;
+
+        private Ready(int generation, String ref, boolean sprites) {
+            this.generation = generation;
+            this.ref = ref;
+            this.sprites = sprites;
+        }
+
+    }
+
+    /**
+     * The worker threads, which are only started when the first level is
+     * preloaded.
+     */
+    private ExecutorService workers;
+
+    /**
+     * The decoded images, by the reference of the image, and the sound
+     * files, by the reference of the file.
+     */
+    private final ConcurrentHashMap<String, ImageData> images;
+    private final ConcurrentHashMap<String, byte[]> sounds;
+
+    /**
+     * The data files that are ready to be loaded.
+     */
+    private final ConcurrentLinkedQueue<Ready> ready;
+
+    /**
+     * The number of data files found and the number that have been
+     * loaded.
+     */
+    private final AtomicInteger total;
+    private final AtomicInteger done;
+
+    /**
+     * Whether all the data files of the level have been found.
+     */
+    private volatile boolean discovered;
+
+    /**
+     * Each level that is preloaded is a new generation, so the work left
+     * over from the last level is dropped.
+     */
+    private volatile int generation;
+
+    private AssetPreloader() {
+        images = new ConcurrentHashMap<>(500);
+        sounds = new ConcurrentHashMap<>(100);
+        ready = new ConcurrentLinkedQueue<>();
+        total = new AtomicInteger();
+        done = new AtomicInteger();
+        generation = 0;
+    }
+
+    /**
+     * Start preloading the assets of a level. This must be called from the
+     * main thread.
+     *
+     * @param levelRef the reference of the level file
+     * @param playerType the type of the player, or null
+     */
+    public void start(String levelRef, PlayerType playerType) {
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(WORKERS, r -> {
+                final Thread t = new Thread(r, "AssetPreloader");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        // The singletons are made here so that the workers only read them
+        TextureAtlas.get();
+        SpriteLoader.get();
+        SoundLoader.get();
+        final int gen = ++generation;
+        ready.clear();
+        images.clear();
+        sounds.clear();
+        total.set(0);
+        done.set(0);
+        discovered = false;
+        workers.submit(() -> discover(gen, levelRef, playerType));
+    }
+
+    /**
+     * Load a few of the data files that have been decoded. This must be
+     * called from the main thread, once per update.
+     */
+    public void poll() {
+        int loaded = 0;
+        while (loaded < BATCH) {
+            final Ready r = ready.poll();
+            if (r == null) {
+                break;
+            }
+            if (r.generation != generation) {
+                continue;
+            }
+            if (r.sprites) {
+                SpriteLoader.get().preloadSprite(r.ref);
+            } else {
+                SoundLoader.get().preloadSound(r.ref);
+            }
+            done.incrementAndGet();
+            loaded++;
+        }
+        if (isDone()) {
+            // Anything left was loaded before the preloader got to it
+            images.clear();
+            sounds.clear();
+        }
+    }
+
+    /**
+     * Get how much of the level has been preloaded, from 0 to 1.
+     *
+     * @return
+     */
+    public float getProgress() {
+        final int t = total.get();
+        return t == 0 ? 1.0f : Math.min(1.0f, (float) done.get() / t);
+    }
+
+    public boolean isDone() {
+        return discovered && done.get() >= total.get();
+    }
+
+    /**
+     * Create an image, from the decoded data if the preloader has it.
+     * Like any texture, the image is made on the main thread, even if it
+     * is asked for by an object that is being updated on a worker.
+     *
+     * @param ref
+     * @return
+     * @throws SlickException
+     */
+    public Image newImage(String ref) throws SlickException {
+        return CommandBuffer.callOnMainThread(() -> {
+            final ImageData data = images.remove(ref);
+            return data != null ? new Image(data) : new Image(ref);
+        });
+    }
+
+    /**
+     * Open a sound file, from memory if the preloader has read it.
+     *
+     * @param ref
+     * @return
+     */
+    public InputStream openSound(String ref) {
+        final byte[] bytes = sounds.remove(ref);
+        return bytes != null ? new ByteArrayInputStream(bytes) : ResourceLoader.getResourceAsStream(ref);
+    }
+
+    /**
+     * Find the data files of a level and start decoding them.
+     *
+     * @param gen
+     * @param levelRef
+     * @param playerType
+     */
+    private void discover(int gen, String levelRef, PlayerType playerType) {
+        final Set<String> names = new LinkedHashSet<>();
+        readLevelNames(levelRef, names);
+        names.addAll(Arrays.asList(COMMON));
+        if (playerType != null) {
+            names.add(playerType.toString());
+            names.addAll(Arrays.asList(playerType.getAttacks()));
+        }
+        final Set<String> related = new LinkedHashSet<>();
+        for (String name : names) {
+            related.addAll(Bank.getRelatedNames(name));
+        }
+        final Set<String> spriteRefs = new LinkedHashSet<>();
+        final Set<String> soundRefs = new LinkedHashSet<>();
+        for (String name : related) {
+            final String sprite = Bank.getSpriteRef(name);
+            if (sprite != null) {
+                spriteRefs.add(sprite);
+            }
+            final String sound = Bank.getSoundRef(name);
+            if (sound != null) {
+                soundRefs.add(sound);
+            }
+        }
+        if (gen != generation) {
+            return;
+        }
+        total.addAndGet(spriteRefs.size() + soundRefs.size());
+        discovered = true;
+        for (String ref : spriteRefs) {
+            workers.submit(() -> decodeSprites(gen, ref));
+        }
+        for (String ref : soundRefs) {
+            workers.submit(() -> readSounds(gen, ref));
+        }
+    }
+
+    /**
+     * Read the names of the objects in a level file, and the monsters and
+     * tiles that they name.
+     *
+     * @param levelRef
+     * @param names
+     */
+    private static void readLevelNames(String levelRef, Set<String> names) {
+        final URL url = AssetPreloader.class.getClassLoader().getResource(levelRef);
+        if (url == null) {
+            return;
+        }
+        try (InputStream in = url.openStream()) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamReader.START_ELEMENT) {
+                    continue;
+                }
+                names.add(reader.getLocalName());
+                final String monster = reader.getAttributeValue(null, "monster");
+                if (monster != null) {
+                    names.add(monster);
+                }
+                final String tile = reader.getAttributeValue(null, "tile");
+                if (tile != null) {
+                    names.add(tile);
+                }
+            }
+            reader.close();
+        } catch (IOException | XMLStreamException ex) {
+            // The level will fail to load on its own, with a better message
+        }
+    }
+
+    /**
+     * Read the attribute values of every element in a data file.
+     *
+     * @param ref the reference of the data file
+     * @param attribute the name of the attribute, or null for all of them
+     * @return
+     */
+    private static List<String> readAttributes(String ref, String attribute) {
+        final List<String> values = new ArrayList<>();
+        final URL url = AssetPreloader.class.getClassLoader().getResource(ref);
+        if (url == null) {
+            return values;
+        }
+        try (InputStream in = url.openStream()) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamReader.START_ELEMENT) {
+                    continue;
+                }
+                if (attribute != null) {
+                    final String value = reader.getAttributeValue(null, attribute);
+                    if (value != null) {
+                        values.add(value);
+                    }
+                } else {
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        values.add(reader.getAttributeValue(i));
+                    }
+                }
+            }
+            reader.close();
+        } catch (IOException | XMLStreamException ex) {
+            values.clear();
+        }
+        return values;
+    }
+
+    /**
+     * Decode the images of a sprite data file. Frames that are in the
+     * texture atlas are decoded as their atlas page.
+     *
+     * @param gen
+     * @param ref
+     */
+    private void decodeSprites(int gen, String ref) {
+        final TextureAtlas atlas = TextureAtlas.get();
+        for (String image : readAttributes(ref, "image")) {
+            if (gen != generation) {
+                return;
+            }
+            final String frame = SpriteLoader.filePathSwap(ref, image);
+            final String page = atlas.getPageRef(frame);
+            final String load = page != null ? page : frame;
+            if (!images.containsKey(load)) {
+                final ImageData data = decodeImage(load);
+                if (data != null && gen == generation) {
+                    images.putIfAbsent(load, data);
+                }
+            }
+        }
+        ready.add(new Ready(gen, ref, true));
+    }
+
+    private static ImageData decodeImage(String ref) {
+        final LoadableImageData data = ImageDataFactory.getImageDataFor(ref);
+        try (InputStream in = ResourceLoader.getResourceAsStream(ref)) {
+            data.loadImage(in, false, null);
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Read the sound files of a sound data file.
+     *
+     * @param gen
+     * @param ref
+     */
+    private void readSounds(int gen, String ref) {
+        for (String file : readAttributes(ref, null)) {
+            if (gen != generation) {
+                return;
+            }
+            final String sound = SpriteLoader.filePathSwap(ref, file);
+            if (!sounds.containsKey(sound)) {
+                final byte[] bytes = readBytes(sound);
+                if (bytes != null && gen == generation) {
+                    sounds.putIfAbsent(sound, bytes);
+                }
+            }
+        }
+        ready.add(new Ready(gen, ref, false));
+    }
+
+    private static byte[] readBytes(String ref) {
+        try (InputStream in = ResourceLoader.getResourceAsStream(ref)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,245 @@
+package kawaiiklash;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.imageio.ImageIO;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import static kawaiiklash.Utility.fail;
+
+/**
+ * The {@code AtlasPacker} is a build step, separate from the game, that
+ * packs the sprite frames into a few large texture atlas pages. Without
+ * the atlas, every frame is its own texture, and the graphics card has to
+ * switch textures for almost every sprite that is drawn.
+ * <p>
+ * The packer reads every {@code data.xml} under the sprites folder and
+ * packs each frame that they use onto pages, a shelf at a time, from the
+ * tallest frame to the shortest. Frames that are too large, such as
+ * backgrounds, are left as they are. It then writes the pages and an
+ * index, {@code atlas.xml}, which gives the page and area of each frame.
+ * The offsets and delays stay in the {@code data.xml} files.
+ * {@link TextureAtlas} reads the index when the game starts.
+ * <p>
+ * The packer is run with {@code gradle packAtlas}, or with the resources
+ * folder as its only argument. Gradle runs it before the resources are
+ * copied, whenever a sprite image or {@code data.xml} has changed, so the
+ * pages never hold old frames.
+ *
+ * @author Jeff Niu
+ */
+public class AtlasPacker {
+
+    /**
+     * The width and height of each page.
+     */
+    public static final int PAGE_SIZE = 2048;
+
+    /**
+     * Frames wider or taller than this are not packed.
+     */
+    public static final int MAX_FRAME = 512;
+
+    /**
+     * The empty space around each frame, so that neighbouring frames do
+     * not bleed into each other when the pages are filtered.
+     */
+    public static final int PADDING = 2;
+
+    /**
+     * A frame to pack.
+     */
+    private static class Frame {
+
+        private final String ref;
+        private final BufferedImage img;
+        private int page;
+        private int x;
+        private int y;
+
+        private Frame(String ref, BufferedImage img) {
+            this.ref = ref;
+            this.img = img;
+        }
+
+    }
+
+    public static void main(String[] args) {
+        final File root = new File(args.length > 0 ? args[0] : "src/resources");
+        final File sprites = new File(root, "sprites");
+        if (!sprites.isDirectory()) {
+            fail("Could not find the sprites folder: " + sprites);
+        }
+        final Set<String> refs = new LinkedHashSet<>();
+        findFrames(root, sprites, refs);
+
+        final List<Frame> frames = new ArrayList<>(refs.size());
+        int skipped = 0;
+        for (String ref : refs) {
+            final BufferedImage img = readImage(new File(root, ref));
+            if (img == null) {
+                continue;
+            }
+            if (img.getWidth() > MAX_FRAME || img.getHeight() > MAX_FRAME) {
+                skipped++;
+            } else {
+                frames.add(new Frame(ref, img));
+            }
+        }
+        final int pages = pack(frames);
+
+        final File out = new File(root, TextureAtlas.FOLDER);
+        out.mkdirs();
+        writePages(out, frames, pages);
+        writeIndex(new File(out, TextureAtlas.INDEX), frames, pages);
+        System.out.println(String.format("Packed %d frames onto %d pages, %d frames left unpacked", frames.size(), pages, skipped));
+    }
+
+    /**
+     * Find every frame used by the {@code data.xml} files in a folder and
+     * its subfolders. The frames are referenced from the resources folder,
+     * the same way that {@link SpriteLoader} loads them.
+     *
+     * @param root the resources folder
+     * @param dir
+     * @param refs
+     */
+    private static void findFrames(File root, File dir, Set<String> refs) {
+        final File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (!file.getName().equals(new File(TextureAtlas.FOLDER).getName())) {
+                    findFrames(root, file, refs);
+                }
+            } else if (file.getName().equals("data.xml")) {
+                final String ref = root.toURI().relativize(file.toURI()).getPath();
+                for (String image : readImageNames(file)) {
+                    refs.add(SpriteLoader.filePathSwap(ref, image));
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the image names from a {@code data.xml} file.
+     *
+     * @param file
+     * @return
+     */
+    private static List<String> readImageNames(File file) {
+        final List<String> names = new ArrayList<>();
+        try (InputStream in = new FileInputStream(file)) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                    final String image = reader.getAttributeValue(null, "image");
+                    if (image != null) {
+                        names.add(image);
+                    }
+                }
+            }
+            reader.close();
+        } catch (IOException | XMLStreamException ex) {
+            fail("Could not read the sprite data file: " + file, ex);
+        }
+        return names;
+    }
+
+    private static BufferedImage readImage(File file) {
+        try {
+            return ImageIO.read(file);
+        } catch (IOException ex) {
+            System.err.println("Could not read the frame: " + file);
+            return null;
+        }
+    }
+
+    /**
+     * Place the frames on pages, filling each page with shelves of
+     * frames from the tallest to the shortest.
+     *
+     * @param frames
+     * @return the number of pages
+     */
+    private static int pack(List<Frame> frames) {
+        final List<Frame> sorted = new ArrayList<>(frames);
+        sorted.sort(Comparator.comparingInt((Frame f) -> f.img.getHeight()).reversed());
+        int page = 0;
+        int x = PADDING;
+        int y = PADDING;
+        int shelf = 0;
+        for (Frame f : sorted) {
+            final int w = f.img.getWidth();
+            final int h = f.img.getHeight();
+            if (x + w + PADDING > PAGE_SIZE) {
+                x = PADDING;
+                y += shelf + PADDING;
+                shelf = 0;
+            }
+            if (y + h + PADDING > PAGE_SIZE) {
+                page++;
+                x = PADDING;
+                y = PADDING;
+                shelf = 0;
+            }
+            f.page = page;
+            f.x = x;
+            f.y = y;
+            x += w + PADDING;
+            shelf = Math.max(shelf, h);
+        }
+        return frames.isEmpty() ? 0 : page + 1;
+    }
+
+    private static void writePages(File out, List<Frame> frames, int pages) {
+        for (int p = 0; p < pages; p++) {
+            final BufferedImage page = new BufferedImage(PAGE_SIZE, PAGE_SIZE, BufferedImage.TYPE_INT_ARGB);
+            final Graphics2D g = page.createGraphics();
+            for (Frame f : frames) {
+                if (f.page == p) {
+                    g.drawImage(f.img, f.x, f.y, null);
+                }
+            }
+            g.dispose();
+            final File file = new File(out, TextureAtlas.pageName(p));
+            try {
+                ImageIO.write(page, "png", file);
+            } catch (IOException ex) {
+                fail("Could not write the atlas page: " + file, ex);
+            }
+        }
+    }
+
+    private static void writeIndex(File file, List<Frame> frames, int pages) {
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("<!--Generated by AtlasPacker-->");
+            out.println();
+            out.println("<atlas>");
+            for (int p = 0; p < pages; p++) {
+                out.println(String.format("    <page image=\"%s\"/>", TextureAtlas.pageName(p)));
+            }
+            for (Frame f : frames) {
+                out.println(String.format("    <frame image=\"%s\" page=\"%d\" x=\"%d\" y=\"%d\" w=\"%d\" h=\"%d\"/>",
+                        f.ref, f.page, f.x, f.y, f.img.getWidth(), f.img.getHeight()));
+            }
+            out.println("</atlas>");
+        } catch (IOException ex) {
+            fail("Could not write the atlas index: " + file, ex);
+        }
+    }
+
+}
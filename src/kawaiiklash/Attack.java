@@ -205,12 +205,12 @@ public abstract class Attack extends Entity {
     }
 
     /**
-     * Get the hitbox that represents this {@code Attack}.
+     * Work out the hitbox that represents this {@code Attack}.
      *
-     * @return the hitbox
+     * @param hitbox the hitbox
      */
     @Override
-    public Rect getHitbox() {
+    protected void updateHitbox(Hitbox hitbox) {
         SpriteSheet ss = getHitboxSheet();
         SpriteSheet box = attacker.getHitboxSheet();
         double y = getY() + ss.getOffsetY();
@@ -222,7 +222,7 @@ public abstract class Attack extends Entity {
         } else {
             x = getX() - ss.getWidth() - ss.getOffsetX() + 2 * box.getOffsetX() + box.getWidth();
         }
-        return new Rect(x, y, width, height);
+        hitbox.set(x, y, width, height);
     }
 
     /**
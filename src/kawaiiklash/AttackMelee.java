@@ -2,6 +2,7 @@ package kawaiiklash;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
 import static kawaiiklash.Utility.fail;
@@ -127,6 +128,7 @@ public abstract class AttackMelee extends Attack implements Logicable {
         if (getState() == EFFECT) {
             setX(getAttacker().getX());
             setY(getAttacker().getY());
+            invalidateHitbox();
         }
         for (SpecialEffect spc : specials) {
             spc.doLogic();
@@ -231,17 +233,18 @@ public abstract class AttackMelee extends Attack implements Logicable {
     }
 
     /**
-     * Get the hitbox of the attack. If the state is in the effect state,
-     * scan the region to prevent hitting through walls.
+     * Work out the hitbox of the attack. If the state is in the effect
+     * state, scan the region to prevent hitting through walls. The walls
+     * may change without the attack moving, so in the effect state, the
+     * hitbox is worked out again once every step.
      *
-     * @return
+     * @param box
      */
     @Override
-    public Rect getHitbox() {
+    protected void updateHitbox(Hitbox box) {
+        super.updateHitbox(box);
         if (getState() == EFFECT) {
-            return hitboxFinder.search();
-        } else {
-            return super.getHitbox();
+            hitboxFinder.search(box);
         }
     }
 
@@ -295,40 +298,69 @@ public abstract class AttackMelee extends Attack implements Logicable {
 
         private final ScannerImpl<?, Platform> s;
 
+        /**
+         * The objects in the line of sight, in a list that is reused for
+         * every search.
+         */
+        private final List<Object> objs;
+
+        /**
+         * The line of sight and the parts that it is split into, which are
+         * reused for every search.
+         */
+        private final Rect sight;
+        private final Rect area;
+        private final Rect upper;
+        private final Rect lower;
+
         private MeleeScanner() {
             s = new ScannerImpl<>(null, Platform.class);
+            objs = new ArrayList<>(0);
+            sight = new Rect();
+            area = new Rect();
+            upper = new Rect();
+            lower = new Rect();
         }
 
-        public Rect search() {
-            final List<Object> objs = getGame().getObjects();
+        /**
+         * Cut a hitbox of the attack down to the part that is not blocked
+         * by walls. The parts of the search are kept and reused, so this
+         * creates nothing.
+         *
+         * @param box the hitbox of the attack, which is set to the result
+         */
+        public void search(Hitbox box) {
+            sight.setRect(box);
+            getGame().getObjects(sight, objs);
             final Rect p = getAttacker().getHitbox();
-            Rect a = s.search(getDirX(), objs, AttackMelee.super.getHitbox(), MARGIN);
-            Rect upper;
-            Rect lower;
+            final Rect a = s.search(getDirX(), objs, sight, MARGIN, area);
             if (p.getY() >= a.getY()) {
                 if (a.getY() + a.getHeight() >= p.getY()) {
-                    upper = new Rect(a.getX(), a.getY(), a.getWidth(), p.getY() - a.getY());
-                    lower = new Rect(a.getX(), p.getY(), a.getWidth(), a.getY() + a.getHeight() - p.getY());
+                    upper.setRect(a.getX(), a.getY(), a.getWidth(), p.getY() - a.getY());
+                    lower.setRect(a.getX(), p.getY(), a.getWidth(), a.getY() + a.getHeight() - p.getY());
                 } else {
-                    upper = a;
-                    lower = new Rect();
+                    upper.setRect(a);
+                    lower.setRect(0, 0, 0, 0);
                 }
             } else if (a.getY() > p.getY() && a.getY() < p.getY() + p.getHeight()) {
                 if (a.getY() + a.getHeight() <= p.getY() + p.getHeight()) {
-                    return a;
+                    box.set(a.getX(), a.getY(), a.getWidth(), a.getHeight());
+                    objs.clear();
+                    return;
                 } else {
-                    upper = new Rect();
-                    lower = a;
+                    upper.setRect(0, 0, 0, 0);
+                    lower.setRect(a);
                 }
             } else {
-                upper = new Rect();
-                lower = a;
+                upper.setRect(0, 0, 0, 0);
+                lower.setRect(a);
             }
-            upper = s.search(Direction.UP, objs, upper, MARGIN);
-            lower = s.search(Direction.DOWN, objs, lower, MARGIN);
-            a = upper.union(lower);
-            a = s.search(getDirX(), objs, a, MARGIN);
-            return a;
+            s.search(Direction.UP, objs, upper, MARGIN, upper);
+            s.search(Direction.DOWN, objs, lower, MARGIN, lower);
+            Rectangle2D.union(upper, lower, area);
+            s.search(getDirX(), objs, area, MARGIN, area);
+            box.set(area.getX(), area.getY(), area.getWidth(), area.getHeight());
+            objs.clear();
         }
 
     }
@@ -124,16 +124,16 @@ public abstract class AttackRange extends Attack implements Logicable {
      * alterations. That's either because I'm lazy or because the current
      * framework does not permit an elegant solution.
      *
-     * @return
+     * @param box
      */
     @Override
-    public Rect getHitbox() {
-        Rect r = super.getHitbox();
-        final double bx = r.getX() + r.getWidth() / 2;
-        final double by = r.getY() + r.getHeight() / 2;
+    protected void updateHitbox(Hitbox box) {
+        super.updateHitbox(box);
+        final double bx = box.getX() + box.getWidth() / 2;
+        final double by = box.getY() + box.getHeight() / 2;
         final double bw = 1;
         final double bh = 1;
-        return new Rect(bx, by, bw, bh);
+        box.set(bx, by, bw, bh);
     }
 
     /**
@@ -230,7 +230,7 @@ public abstract class AttackRange extends Attack implements Logicable {
                     AttackRange ball = (AttackRange) ctor.newInstance(getGame(), getBallX(), getBallY(), getDirX(), getAttacker());
                     ball.setState(ball.BALL);
                     getGame().add(ball);
-                    Effects.fade(Effects.Fade.IN, getGame(), ball.getSprites().get(ball.BALL), getFadeTime());
+                    Effects.fade(Effects.Fade.IN, getGame(), ball, getFadeTime());
                 } catch (IllegalAccessException | IllegalArgumentException | InstantiationException | InvocationTargetException ex) {
                     fail(ex);
                 }
@@ -75,6 +75,19 @@ public abstract class Background implements Drawable {
         foreground = Boolean.parseBoolean(s);
     }
 
+    /**
+     * Whether the {@code Background} looks the same from one frame to the
+     * next while the camera is still, so that it may be drawn once and
+     * cached. A {@code Background} that moves or animates on its own must
+     * not return true, so this is false unless a subclass opts in.
+     *
+     * @return
+     * @see kawaiiklash.BackgroundCache
+     */
+    public boolean isStatic() {
+        return false;
+    }
+
     @Override
     public int getZ() {
         if (foreground) {
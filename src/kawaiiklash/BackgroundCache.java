@@ -0,0 +1,193 @@
+package kawaiiklash;
+
+import java.util.Arrays;
+import static kawaiiklash.Utility.fail;
+import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+
+/**
+ * The {@code BackgroundCache} keeps the static backgrounds at the back of
+ * the level drawn on an offscreen image. The sky and the layers of
+ * mountains and forests cover the whole screen, one on top of the other,
+ * but they only change when the camera moves. So, while the camera is
+ * still, the backgrounds are drawn to the image once and the image is
+ * drawn in their place.
+ * <p>
+ * Only the backgrounds that are drawn first and that are static are
+ * cached, since the others move or animate on their own. While the camera is moving, the backgrounds are drawn as
+ * usual, since the image would have to be drawn again every frame. Like
+ * any image, the cache may only be used from the main thread.
+ *
+ * @author Jeff Niu
+ */
+public class BackgroundCache {
+
+    /**
+     * How far, in pixels, the camera must move for the image to be drawn
+     * again.
+     */
+    public static final double THRESHOLD = 0.5;
+
+    /**
+     * Get the end of the static backgrounds at the start of a draw list.
+     *
+     * @param drawables
+     * @param count the number of drawables in the list
+     * @return
+     */
+    public static int staticRun(Drawable[] drawables, int count) {
+        int end = 0;
+        for (int i = 0; i < count; i++) {
+            final Drawable d = drawables[i];
+            if (d == null) {
+                continue;
+            }
+            if (!(d instanceof Background) || d.getZ() != Drawable.BACKGROUND || !((Background) d).isStatic()) {
+                break;
+            }
+            end = i + 1;
+        }
+        return end;
+    }
+
+    /**
+     * The offscreen image and its graphics.
+     */
+    private Image image;
+    private Graphics graphics;
+
+    /**
+     * The backgrounds on the image and where the camera was when they
+     * were drawn.
+     */
+    private Drawable[] cached;
+    private boolean valid;
+    private double cachedX;
+    private double cachedY;
+
+    /**
+     * Where the camera was in the last frame.
+     */
+    private double lastX;
+    private double lastY;
+
+    public BackgroundCache() {
+        cached = new Drawable[0];
+        valid = false;
+        lastX = Double.NaN;
+        lastY = Double.NaN;
+    }
+
+    /**
+     * Get the cache ready for a frame. If the camera is still, the
+     * backgrounds are drawn to the image, unless it already has them.
+     *
+     * @param drawables the draw list
+     * @param end the end of the static backgrounds in the list
+     * @param cx the horizontal position of the camera
+     * @param cy the vertical position of the camera
+     * @param width the width of the screen
+     * @param height the height of the screen
+     * @return whether the image should be drawn in place of the
+     * backgrounds
+     */
+    public boolean prepare(Drawable[] drawables, int end, double cx, double cy, int width, int height) {
+        final boolean moving = !near(cx, cy, lastX, lastY);
+        lastX = cx;
+        lastY = cy;
+        if (end == 0 || moving) {
+            return false;
+        }
+        if (!valid || !near(cx, cy, cachedX, cachedY) || !holds(drawables, end)
+                || image.getWidth() != width || image.getHeight() != height) {
+            bake(drawables, end, cx, cy, width, height);
+        }
+        return valid;
+    }
+
+    /**
+     * Get the offscreen image.
+     *
+     * @return
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * Forget what is on the image, so that it is drawn again.
+     */
+    public void invalidate() {
+        valid = false;
+        Arrays.fill(cached, null);
+    }
+
+    private static boolean near(double x0, double y0, double x1, double y1) {
+        return Math.abs(x0 - x1) < THRESHOLD && Math.abs(y0 - y1) < THRESHOLD;
+    }
+
+    /**
+     * Check whether the image has exactly the backgrounds at the start of
+     * a draw list.
+     *
+     * @param drawables
+     * @param end
+     * @return
+     */
+    private boolean holds(Drawable[] drawables, int end) {
+        if (end != cached.length) {
+            return false;
+        }
+        for (int i = 0; i < end; i++) {
+            if (drawables[i] != cached[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Draw the backgrounds to the image. This binds the image as the
+     * target of drawing, so the screen graphics must be used again before
+     * anything else is drawn.
+     */
+    private void bake(Drawable[] drawables, int end, double cx, double cy, int width, int height) {
+        valid = false;
+        try {
+            if (image == null || image.getWidth() != width || image.getHeight() != height) {
+                if (image != null) {
+                    image.destroy();
+                }
+                image = new Image(width, height);
+                graphics = image.getGraphics();
+            }
+        } catch (SlickException ex) {
+            fail("Could not create the background cache", ex);
+            return;
+        }
+        graphics.clear();
+        final SpriteBatch batch = SpriteBatch.get();
+        batch.begin();
+        for (int i = 0; i < end; i++) {
+            final Drawable d = drawables[i];
+            if (d == null) {
+                continue;
+            }
+            final double tx = -cx * d.getParallax();
+            final double ty = -cy * d.getParallax();
+            graphics.resetTransform();
+            graphics.translate((float) tx, (float) ty);
+            batch.setLayer(d.getZ(), tx, ty);
+            d.draw(graphics);
+        }
+        graphics.resetTransform();
+        batch.end();
+        graphics.flush();
+        cached = Arrays.copyOf(drawables, end);
+        cachedX = cx;
+        cachedY = cy;
+        valid = true;
+    }
+
+}
@@ -1,6 +1,15 @@
 package kawaiiklash;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static kawaiiklash.Utility.fail;
 import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
 
 /**
  * A {@code BackgroundLayer} is a type of repeating {@code Background} in
@@ -13,6 +22,81 @@ import org.newdawn.slick.Graphics;
  */
 public abstract class BackgroundLayer extends Background implements Cartesian {
 
+    /**
+     * The widest that a strip may be, in pixels.
+     */
+    private static final int MAX_STRIP = 4096;
+
+    /**
+     * The strips that have been baked, by the image that they repeat, the
+     * period at which they repeat it and how many times. A strip is the
+     * image repeated enough times to cover the screen from any starting
+     * point, so the whole layer can be drawn as one quad. Layers that
+     * share an image but not a period each get their own strip.
+     */
+    private static final Map<Strip, Image> STRIPS = new HashMap<>();
+
+    /**
+     * The strips that have been replaced by a strip with a different
+     * count, which may still be waiting to be drawn, so they are only
+     * destroyed along with the others.
+     */
+    private static final List<Image> RETIRED = new ArrayList<>();
+
+    /**
+     * Destroy all the baked strips. This is called when a level is
+     * loaded, and like any image, may only be done on the main thread.
+     */
+    public static void clearStrips() {
+        for (Image strip : STRIPS.values()) {
+            destroy(strip);
+        }
+        for (Image strip : RETIRED) {
+            destroy(strip);
+        }
+        STRIPS.clear();
+        RETIRED.clear();
+    }
+
+    private static void destroy(Image strip) {
+        try {
+            strip.destroy();
+        } catch (SlickException ex) {
+            fail("Could not destroy a baked background strip", ex);
+        }
+    }
+
+    /**
+     * The key of a baked strip.
+     */
+    private static class Strip {
+
+        private final Image image;
+        private final int period;
+        private final int count;
+
+        private Strip(Image image, int period, int count) {
+            this.image = image;
+            this.period = period;
+            this.count = count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Strip)) {
+                return false;
+            }
+            final Strip s = (Strip) o;
+            return image == s.image && period == s.period && count == s.count;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(image), period, count);
+        }
+
+    }
+
     /**
      * The horizontal position.
      */
@@ -27,7 +111,8 @@ public abstract class BackgroundLayer extends Background implements Cartesian {
      * To give the impression of perspective, the {@code BackgroundLayer}
      * will have a factor that reduces its movement when the screen
      * scrolls. Naturally, {@code BackgroundLayer}s that are further back
-     * will have a smaller value, so they scroll less.
+     * will have a smaller value, so they scroll less. This is the parallax
+     * factor of the layer.
      */
     private double scroll;
 
@@ -45,6 +130,12 @@ public abstract class BackgroundLayer extends Background implements Cartesian {
 
     private int upshift;
 
+    /**
+     * The key of the strip that the layer last drew, kept so that it is
+     * not made again every frame.
+     */
+    private Strip stripKey;
+
     /**
      * Create the {@code BackgroundLayer}.
      *
@@ -73,56 +164,110 @@ public abstract class BackgroundLayer extends Background implements Cartesian {
     }
 
     /**
-     * Draw the background layer.
+     * Draw the background layer. The layer is drawn with the camera scaled
+     * by its scroll factor, so only the periods that cover the part of the
+     * layer that is seen through the screen are drawn. When the layer
+     * repeats often enough across the screen, it is drawn as a single
+     * strip instead, offset by where the first period starts.
      *
      * @param g the {@code Graphics} to which to draw
      */
     @Override
     public void draw(Graphics g) {
-        // Normalize the horizontal position so that the later loop is kept
-        // at minimum length
-        x %= period * scale;
-        // Ensure that the horizontal position is negative for graphical
-        // fidelity when drawing in the loop
-        while (x > 0) {
-            x -= period * scale;
+        final double length = period * scale;
+        final Rect screen = getGame().getScreen();
+        final double left = screen.getX() * scroll;
+        final double right = left + screen.getWidth();
+        // Start at the last period that begins before the left edge
+        double start = x + Math.floor((left - x) / length) * length;
+        final float top = (float) y + getUpshift() * scale;
+        final Sprite sprite = getSprite();
+        final Image strip = getStrip(sprite.getImage(), screen.getWidth());
+        if (strip != null) {
+            SpriteBatch.drawImage(strip, (float) start, top,
+                    strip.getWidth() * scale, strip.getHeight() * scale, sprite.getFilter());
+            return;
         }
-        // Draw the background according to the period, within the screen
-        for (int i = 0; i + x < getGame().getScreen().getWidth(); i += period * scale) {
-            getSprite().draw((float) x + i, (float) y + getUpshift() * scale, scale);
+        for (; start < right; start += length) {
+            sprite.draw((float) start, top, scale);
         }
     }
 
     /**
-     * An overridable method to get the upshift of the background. The
-     * default upshift value will the vertical offset.
+     * Get the strip of an image for this layer, baking it if needed. Like
+     * any image, this may only be done on the main thread.
      *
-     * @return
+     * @param img the image of the layer
+     * @param screenWidth
+     * @return the strip, or null if the layer is better drawn a period at
+     * a time
      */
-    public int getUpshift() {
-        return upshift;
+    private Image getStrip(Image img, double screenWidth) {
+        if (period <= 0) {
+            return null;
+        }
+        // The number of periods needed to cover the screen
+        final int count = (int) Math.ceil(screenWidth / (period * scale)) + 1;
+        final int width = (count - 1) * period + img.getWidth();
+        if (count < 3 || width > MAX_STRIP) {
+            return null;
+        }
+        if (stripKey == null || stripKey.image != img || stripKey.period != period || stripKey.count != count) {
+            stripKey = new Strip(img, period, count);
+        }
+        final Strip key = stripKey;
+        Image strip = STRIPS.get(key);
+        if (strip == null) {
+            // A strip of the same image and period with another count was
+            // baked for another screen width, and is replaced by this one
+            final Iterator<Map.Entry<Strip, Image>> it = STRIPS.entrySet().iterator();
+            while (it.hasNext()) {
+                final Map.Entry<Strip, Image> entry = it.next();
+                if (entry.getKey().image == img && entry.getKey().period == period) {
+                    RETIRED.add(entry.getValue());
+                    it.remove();
+                }
+            }
+            try {
+                strip = new Image(width, img.getHeight());
+                final Graphics sg = strip.getGraphics();
+                for (int i = 0; i < count; i++) {
+                    sg.drawImage(img, i * period, 0);
+                }
+                sg.flush();
+            } catch (SlickException ex) {
+                fail("Could not bake the background layer: " + getClass().getSimpleName(), ex);
+                return null;
+            }
+            STRIPS.put(key, strip);
+        }
+        return strip;
+    }
+
+    @Override
+    public double getParallax() {
+        return scroll;
     }
 
     /**
-     * Scroll horizontally: call to super method with a reduced scroll
-     * value, according to the scroll factor.
+     * A layer only moves with the camera, unless a subclass moves it on
+     * its own.
      *
-     * @param dx
+     * @return
      */
     @Override
-    public void moveX(double dx) {
-        Cartesian.super.moveX(dx * scroll);
+    public boolean isStatic() {
+        return true;
     }
 
     /**
-     * Scroll verticaLly.
+     * An overridable method to get the upshift of the background. The
+     * default upshift value will the vertical offset.
      *
-     * @see #moveX(double)
-     * @param dy
+     * @return
      */
-    @Override
-    public void moveY(double dy) {
-        Cartesian.super.moveY(dy * scroll);
+    public int getUpshift() {
+        return upshift;
     }
 
     @Override
@@ -21,6 +21,17 @@ public abstract class BackgroundObject extends Background implements Cartesian {
 
     public abstract Sprite getSprite();
 
+    /**
+     * An object only moves with the camera, unless a subclass moves it on
+     * its own.
+     *
+     * @return
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void draw(Graphics g) {
         float tx = (float) (getX() + getOffsetX());
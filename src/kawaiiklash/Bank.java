@@ -1,6 +1,8 @@
 package kawaiiklash;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The {@code Bank} class is a centralized utility class whose specific
@@ -63,6 +65,31 @@ public class Bank {
         return getRef(name, Bank.Sound.class);
     }
 
+    /**
+     * Get the names of the references that are related to an object: its
+     * own name, and every name of which it is the start or that is the
+     * start of it. So a {@code NeoHuroid} is related to the
+     * {@code NeoHuroidRocket} that it fires, and {@code Clouds} are related
+     * to each {@code Cloud}.
+     *
+     * @param name
+     * @return
+     */
+    public static List<String> getRelatedNames(String name) {
+        final List<String> names = new ArrayList<>();
+        names.add(name);
+        for (Class<?> bank : new Class<?>[]{Bank.Sprite.class, Bank.Sound.class}) {
+            for (Field field : bank.getDeclaredFields()) {
+                final String other = field.getName();
+                if (field.getType() == String.class && !other.equals(name) && !names.contains(other)
+                        && (other.startsWith(name) || name.startsWith(other))) {
+                    names.add(other);
+                }
+            }
+        }
+        return names;
+    }
+
     /**
      * Hereafter are defined two classes: {@link Bank.Sound} and
      * {@link Bank.Sprite}. Each class is a utility class whose fields
@@ -48,6 +48,17 @@ public class Blimp extends BackgroundLayer implements Updateable {
         sprite.update(dt);
     }
 
+    /**
+     * The blimp flies across the screen and animates, so it is never
+     * cached.
+     *
+     * @return
+     */
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
     @Override
     public Sprite getSprite() {
         return sprite.getSprite();
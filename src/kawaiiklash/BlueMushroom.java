@@ -1,5 +1,6 @@
 package kawaiiklash;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.newdawn.slick.Graphics;
 
@@ -14,6 +15,12 @@ public class BlueMushroom extends Jumper implements PlatformWalker, PlatformJump
      */
     private final int PREPARE = getStateNumber("prepare");
 
+    /**
+     * The list that the objects around a jump are put into, which is
+     * reused for every jump check.
+     */
+    private final List<Object> nearby = new ArrayList<>(0);
+
     public BlueMushroom(Game game) {
         super(game);
 
@@ -148,8 +155,8 @@ public class BlueMushroom extends Jumper implements PlatformWalker, PlatformJump
     }
 
     @Override
-    public List<Object> getObjects() {
-        return getGame().getObjects();
+    public List<Object> getObjects(Rect area) {
+        return getGame().getObjects(area, nearby);
     }
 
 }
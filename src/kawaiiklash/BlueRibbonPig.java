@@ -1,5 +1,6 @@
 package kawaiiklash;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.newdawn.slick.Graphics;
 
@@ -121,6 +122,12 @@ public class BlueRibbonPig extends Walker {
      */
     private class PlayerSearcher implements Scanner {
 
+        /**
+         * The list that the objects in the scan area are put into, which
+         * is reused for every scan.
+         */
+        private final List<Object> scanObjects = new ArrayList<>(0);
+
         /**
          * Create and return the {@code EntityScanner} associated with this
          * {@code Scanner}. Its {@code Target} will be a
@@ -183,13 +190,13 @@ public class BlueRibbonPig extends Walker {
         /**
          * Get the {@code List} of {@code Object}s through which to scan.
          * The {@code BlueRibbonPigScanner} will scan through the
-         * {@code Game Object}s.
+         * {@code Game Object}s in its scan area.
          *
          * @return
          */
         @Override
         public List<Object> getScanObjects() {
-            return getGame().getObjects();
+            return getGame().getObjects(getScanArea(), scanObjects);
         }
     }
 
@@ -35,4 +35,24 @@ public class BlueSky extends Background {
         sky.draw(0, 0);
     }
 
+    /**
+     * The sky does not move with the camera.
+     *
+     * @return
+     */
+    @Override
+    public double getParallax() {
+        return 0.0;
+    }
+
+    /**
+     * The sky never changes.
+     *
+     * @return
+     */
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
 }
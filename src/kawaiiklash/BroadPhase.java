@@ -0,0 +1,43 @@
+package kawaiiklash;
+
+/**
+ * The broad phase of collision detection. A {@code BroadPhase} is given
+ * all the {@code Collideable} objects that can currently collide and finds
+ * the pairs whose hitboxes might overlap. Only those candidate pairs are
+ * then tested exactly and dispatched, so that the cost of collisions does
+ * not grow with the square of the number of objects.
+ *
+ * @author Jeff Niu
+ */
+public interface BroadPhase {
+
+    /**
+     * Find all the candidate pairs among the first {@code count} objects
+     * in the array and hand each pair to the handler exactly once. Within
+     * a pair, the object that comes first in the array is given first.
+     * Candidate pairs are allowed to not actually collide, but every pair
+     * that does collide must be found.
+     *
+     * @param cols the objects that can collide
+     * @param count the number of objects in the array to consider
+     * @param handler the receiver of each candidate pair
+     */
+    void findPairs(Collideable[] cols, int count, PairHandler handler);
+
+    /**
+     * A receiver of the candidate pairs found by a {@code BroadPhase}.
+     */
+    @FunctionalInterface
+    interface PairHandler {
+
+        /**
+         * Handle a candidate pair.
+         *
+         * @param a
+         * @param b
+         */
+        void handle(Collideable a, Collideable b);
+
+    }
+
+}
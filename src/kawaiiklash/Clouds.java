@@ -90,6 +90,7 @@ public class Clouds extends Background {
         clouds = new ArrayList<>(density);
         for (int i = 0; i < density; i++) {
             Cloud c = new Cloud(x.rand(), y.rand(), dir.unit() * dx.rand());
+            c.placeOnScreen(c.getX(), c.getY());
             clouds.add(c);
             getGame().add(c);
         }
@@ -122,6 +123,7 @@ public class Clouds extends Background {
         } else {
             c = new Cloud(-cloud.width, y.rand(), dir.unit() * dx.rand());
         }
+        c.placeOnScreen(c.getX(), c.getY());
         clouds.add(c);
         game.add(c);
         while (clouds.size() > 5 * clouds.size()) {
@@ -139,11 +141,22 @@ public class Clouds extends Background {
     public void draw(Graphics g) {
         for (Cloud c : clouds) {
             if (c.inBounds()) {
-                c.getSprite().draw((float) c.getX(), (float) c.getY(), scale);
+                c.getSprite().draw((float) c.screenX(), (float) c.screenY(), scale);
             }
         }
     }
 
+    /**
+     * Each cloud scrolls by its own factor, so the clouds are drawn
+     * relative to the screen and place themselves.
+     *
+     * @return
+     */
+    @Override
+    public double getParallax() {
+        return 0.0;
+    }
+
     /**
      * Set the number of clouds. This method must be called.
      *
@@ -195,6 +208,41 @@ public class Clouds extends Background {
             notified = false;
         }
 
+        /**
+         * Get the scroll factor of this cloud. Faster clouds scroll a bit
+         * more, to look closer.
+         *
+         * @return
+         */
+        private double parallax() {
+            Bound b = Clouds.this.dx;
+            return (abs(dx) - b.lower()) / (b.upper() - b.lower()) * 0.3 + scroll;
+        }
+
+        /**
+         * Place the cloud at a position on the screen.
+         *
+         * @param sx
+         * @param sy
+         */
+        private void placeOnScreen(double sx, double sy) {
+            x = sx + getGame().getScreen().getX() * parallax();
+            y = sy + getGame().getScreen().getY() * parallax();
+        }
+
+        /**
+         * Get the horizontal position of the cloud on the screen.
+         *
+         * @return
+         */
+        private double screenX() {
+            return x - getGame().getScreen().getX() * parallax();
+        }
+
+        private double screenY() {
+            return y - getGame().getScreen().getY() * parallax();
+        }
+
         private Sprite getSprite() {
             return sheet.get(state);
         }
@@ -209,16 +257,18 @@ public class Clouds extends Background {
 
         private boolean halfway() {
             if (Direction.xDirOf(dx) == LEFT) {
-                return x + sheet.getWidth(state) / 2.0 <= 0;
+                return screenX() + sheet.getWidth(state) / 2.0 <= 0;
             } else {
-                return x >= getGame().getScreen().getWidth();
+                return screenX() >= getGame().getScreen().getWidth();
             }
         }
 
         private boolean inBounds() {
-            final Rect hitbox = new Rect(x, y, getWidth(), getHeight());
             final Rect screen = getGame().getScreen();
-            return hitbox.intersects(new Rect(0.0, 0.0, screen.getWidth(), screen.getHeight()));
+            final double sx = screenX();
+            final double sy = screenY();
+            return sx + getWidth() > 0 && sx < screen.getWidth()
+                    && sy + getHeight() > 0 && sy < screen.getHeight();
         }
 
         @Override
@@ -280,20 +330,6 @@ public class Clouds extends Background {
             return sheet.getWidth(state);
         }
 
-        @Override
-        public void moveX(double dx) {
-            Bound b = Clouds.this.dx;
-            double d = (abs(this.dx) - b.lower()) / (b.upper() - b.lower()) * 0.3 + (scroll);
-            Cartesian.super.moveX(dx * d);
-        }
-
-        @Override
-        public void moveY(double dy) {
-            Bound b = Clouds.this.dx;
-            double d = (abs(this.dx) - b.lower()) / (b.upper() - b.lower()) * 0.3 + (scroll);
-            Cartesian.super.moveY(dy * d);
-        }
-
         @Override
         public int compareTo(Cloud o) {
             return (int) (dx - o.getSpeed());
@@ -43,6 +43,25 @@ public interface Collideable {
      */
     void collidedWith(final Collideable other);
 
+    /**
+     * Tell the {@code Collideable} that it has started touching another.
+     * This is called once, before the first call to
+     * {@link #collidedWith(kawaiiklash.Collideable) collidedWith}, which
+     * is then called on every step for as long as they keep touching.
+     *
+     * @param other
+     */
+    default void contactBegan(final Collideable other) {
+    }
+
+    /**
+     * Tell the {@code Collideable} that it has stopped touching another.
+     *
+     * @param other
+     */
+    default void contactEnded(final Collideable other) {
+    }
+
     /**
      * Overload method to get the {@code Direction} in which this
      * {@code Collideable} collides with another.
@@ -65,6 +84,19 @@ public interface Collideable {
     default Direction getCollideDir(final Rect o) {
         final Rect r = getHitbox();
         final Rect i = r.intersection(o);
+        return getCollideDir(o, r, i);
+    }
+
+    /**
+     * Determine the {@code Direction} in which a hitbox collides with
+     * another, given their intersection.
+     *
+     * @param o the other hitbox
+     * @param r this hitbox
+     * @param i the intersection
+     * @return
+     */
+    default Direction getCollideDir(final Rect o, final Rect r, final Rect i) {
         if (i.height / 2 <= i.width) {
             return getVerCollideDir(o, r, i);
         } else {
@@ -0,0 +1,228 @@
+package kawaiiklash;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.newdawn.slick.SlickException;
+
+/**
+ * A {@code CommandBuffer} holds the changes to the game that are made by a
+ * group of game objects while they are being updated on another thread.
+ * Objects to add, objects to remove, and any other command that touches
+ * the game as a whole are kept in order and applied on the main thread
+ * once every thread is done. Each worker has its own buffer, but a buffer
+ * may still be read by other threads, so it is thread-safe.
+ * <p>
+ * Some work cannot wait until the end of the phase, but must still be done
+ * on the main thread, such as creating a texture or a sound buffer for an
+ * object that is being created. A worker hands that work to
+ * {@link #callOnMainThread} and waits, and the main thread runs it while it
+ * waits for the phase to finish, in {@link #join}.
+ *
+ * @author Jeff Niu
+ */
+public class CommandBuffer {
+
+    /**
+     * Work that must be done on the main thread and returns a value.
+     *
+     * @param <T> the type of the value
+     */
+    @FunctionalInterface
+    public interface MainThreadCall<T> {
+
+        T call() throws SlickException;
+
+    }
+
+    /**
+     * The buffer of the chunk that the current thread is running, or null
+     * on the main thread.
+     */
+    private static final ThreadLocal<CommandBuffer> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The work that workers are waiting for the main thread to do.
+     */
+    private static final LinkedBlockingQueue<FutureTask<?>> MAIN = new LinkedBlockingQueue<>();
+
+    /**
+     * Get the buffer of the chunk that the current thread is running.
+     *
+     * @return the buffer, or null if this is the main thread
+     */
+    public static CommandBuffer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Set the buffer of the chunk that the current thread is running.
+     *
+     * @param buffer the buffer, or null once the chunk is done
+     */
+    static void setCurrent(CommandBuffer buffer) {
+        if (buffer != null) {
+            CURRENT.set(buffer);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Do some work on the main thread. On the main thread, the work is done
+     * at once. On a worker, the work is handed to the main thread, and the
+     * worker waits until it is done.
+     *
+     * @param <T>
+     * @param call
+     * @return the value of the work
+     * @throws SlickException if the work throws
+     */
+    public static <T> T callOnMainThread(MainThreadCall<T> call) throws SlickException {
+        if (current() == null) {
+            return call.call();
+        }
+        final FutureTask<T> task = new FutureTask<>(call::call);
+        MAIN.add(task);
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SlickException("Interrupted while waiting for the main thread", ex);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof SlickException) {
+                throw (SlickException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SlickException("Failed on the main thread", cause);
+        }
+    }
+
+    /**
+     * Wait on the main thread for a task of a parallel phase to finish,
+     * doing the work that the workers hand to the main thread meanwhile.
+     *
+     * @param task
+     */
+    public static void join(Future<?> task) {
+        while (!task.isDone()) {
+            final FutureTask<?> call;
+            try {
+                call = MAIN.poll(1, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (call != null) {
+                call.run();
+            }
+        }
+        FutureTask<?> call;
+        while ((call = MAIN.poll()) != null) {
+            call.run();
+        }
+    }
+
+    /**
+     * The objects to be added, in order.
+     */
+    private final List<Object> add;
+    /**
+     * The objects to be added, for finding them in constant time.
+     */
+    private final Set<Object> adding;
+    /**
+     * The objects to be removed, in order.
+     */
+    private final List<Object> remove;
+    /**
+     * The commands to be run, in order.
+     */
+    private final List<Runnable> commands;
+
+    /**
+     * Create an empty {@code CommandBuffer}.
+     */
+    public CommandBuffer() {
+        add = new ArrayList<>(0);
+        adding = Collections.newSetFromMap(new IdentityHashMap<>());
+        remove = new ArrayList<>(0);
+        commands = new ArrayList<>(0);
+    }
+
+    /**
+     * Buffer an object to be added to the game.
+     *
+     * @param o
+     */
+    public synchronized void add(Object o) {
+        if (adding.add(o)) {
+            add.add(o);
+        }
+    }
+
+    /**
+     * Buffer an object to be removed from the game.
+     *
+     * @param o
+     */
+    public synchronized void remove(Object o) {
+        remove.add(o);
+    }
+
+    /**
+     * Buffer a command to be run on the main thread.
+     *
+     * @param command
+     */
+    public synchronized void post(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Whether or not an object is buffered to be added.
+     *
+     * @param o
+     * @return
+     */
+    public synchronized boolean addQueued(Object o) {
+        return adding.contains(o);
+    }
+
+    /**
+     * Hand the buffered objects to the game to be added and removed, then
+     * run the buffered commands, and empty the buffer. This must be called
+     * on the main thread.
+     *
+     * @param game
+     */
+    public synchronized void apply(Game game) {
+        for (final Object o : add) {
+            game.add(o);
+        }
+        for (final Object o : remove) {
+            game.remove(o);
+        }
+        add.clear();
+        adding.clear();
+        remove.clear();
+        for (final Runnable command : commands) {
+            command.run();
+        }
+        commands.clear();
+    }
+
+}
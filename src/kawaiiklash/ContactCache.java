@@ -0,0 +1,402 @@
+package kawaiiklash;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A {@code ContactCache} remembers the pairs of {@code Collideable}
+ * objects that are touching from one step to the next. Most contacts, such
+ * as the player standing on a platform, last for many steps, so the
+ * intersection of the two hitboxes and the {@code Direction} in which each
+ * object hits the other are kept with the contact. They are only worked
+ * out again when one of the hitboxes has moved, and the intersection is
+ * stored in a {@code Rect} that belongs to the contact, so looking them up
+ * does not allocate anything.
+ * <p>
+ * Each step, the game touches every pair that collides. A pair that is
+ * touched for the first time begins a contact, and a contact that is not
+ * touched during a step ends.
+ *
+ * @author Jeff Niu
+ */
+public class ContactCache {
+
+    /**
+     * The value for an empty slot in the hash table.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * A contact between two {@code Collideable} objects.
+     */
+    public static class Contact {
+
+        /**
+         * The two objects. The first one has the smaller id.
+         */
+        private final Collideable a;
+        private final Collideable b;
+        /**
+         * The key of the pair.
+         */
+        private final long key;
+        /**
+         * The last step during which the pair collided.
+         */
+        private int stamp;
+        /**
+         * The position of the contact in the list of contacts.
+         */
+        private int slot;
+
+        /**
+         * The hitboxes that the intersection and directions were worked out
+         * from.
+         */
+        private final Rect boxA;
+        private final Rect boxB;
+        /**
+         * The intersection of the two hitboxes.
+         */
+        private final Rect intersection;
+        /**
+         * The {@code Direction} in which each object hits the other, or
+         * null if it has not been worked out for the current hitboxes.
+         */
+        private Direction dirA;
+        private Direction dirB;
+
+        private Contact(Collideable a, Collideable b, long key) {
+            this.a = a;
+            this.b = b;
+            this.key = key;
+            boxA = new Rect();
+            boxB = new Rect();
+            intersection = new Rect();
+        }
+
+        /**
+         * Work out the intersection again if either hitbox has moved.
+         *
+         * @param ra the current hitbox of the first object
+         * @param rb the current hitbox of the second object
+         */
+        private void update(Rect ra, Rect rb) {
+            if (!boxA.equals(ra) || !boxB.equals(rb)) {
+                boxA.setRect(ra);
+                boxB.setRect(rb);
+                Rectangle2D.intersect(boxA, boxB, intersection);
+                dirA = null;
+                dirB = null;
+            }
+        }
+
+        /**
+         * Get the {@code Direction} in which the given object hits the
+         * other object of the contact.
+         *
+         * @param c one of the two objects
+         * @return
+         */
+        public synchronized Direction getCollideDir(Collideable c) {
+            update(a.getHitbox(), b.getHitbox());
+            if (c == a) {
+                if (dirA == null) {
+                    dirA = a.getCollideDir(boxB, boxA, intersection);
+                }
+                return dirA;
+            } else {
+                if (dirB == null) {
+                    dirB = b.getCollideDir(boxA, boxB, intersection);
+                }
+                return dirB;
+            }
+        }
+
+        /**
+         * Get the intersection of the two hitboxes. The {@code Rect}
+         * belongs to the contact and must not be changed.
+         *
+         * @return
+         */
+        public synchronized Rect getIntersection() {
+            update(a.getHitbox(), b.getHitbox());
+            return intersection;
+        }
+
+        /**
+         * Get the other object of the contact.
+         *
+         * @param c one of the two objects
+         * @return
+         */
+        public Collideable getOther(Collideable c) {
+            return c == a ? b : a;
+        }
+
+    }
+
+    /**
+     * The id of each object in a contact. Ids are reused once an object
+     * is forgotten.
+     */
+    private final IdentityHashMap<Collideable, Integer> ids;
+    private int[] freeIds;
+    private int freeCount;
+    private int nextId;
+
+    /**
+     * The list of all the contacts.
+     */
+    private Contact[] contacts;
+    private int count;
+
+    /**
+     * The open addressing hash table from pair keys to contacts, using
+     * linear probing. Each entry is the position of the contact in the
+     * list, or {@link #EMPTY}.
+     */
+    private int[] table;
+    private int mask;
+
+    /**
+     * The current step.
+     */
+    private int stamp;
+
+    /**
+     * Create an empty {@code ContactCache}.
+     */
+    public ContactCache() {
+        ids = new IdentityHashMap<>();
+        freeIds = new int[16];
+        contacts = new Contact[16];
+        table = new int[64];
+        Arrays.fill(table, EMPTY);
+        mask = table.length - 1;
+    }
+
+    /**
+     * Start a new step. Every pair that collides during the step must be
+     * touched before {@link #endStep()} is called.
+     */
+    public void beginStep() {
+        stamp++;
+    }
+
+    /**
+     * Note that two objects collide during this step. If they were not
+     * touching before, their contact begins and both are told.
+     *
+     * @param a
+     * @param b
+     * @return the contact
+     */
+    public Contact touch(Collideable a, Collideable b) {
+        final int ia = idOf(a);
+        final int ib = idOf(b);
+        final long key = key(ia, ib);
+        Contact contact = find(key);
+        if (contact == null) {
+            contact = ia < ib ? new Contact(a, b, key) : new Contact(b, a, key);
+            insert(contact);
+            a.contactBegan(b);
+            b.contactBegan(a);
+        }
+        contact.stamp = stamp;
+        return contact;
+    }
+
+    /**
+     * End the step. Every contact whose pair was not touched during the
+     * step ends and both objects are told.
+     */
+    public void endStep() {
+        for (int i = 0; i < count;) {
+            final Contact contact = contacts[i];
+            if (contact.stamp != stamp) {
+                remove(contact);
+                contact.a.contactEnded(contact.b);
+                contact.b.contactEnded(contact.a);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Get the contact between two objects, or null if they are not
+     * touching. This does not change the cache, so it may be called from
+     * several threads while the game objects are updated.
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    public Contact get(Collideable a, Collideable b) {
+        final Integer ia = ids.get(a);
+        final Integer ib = ids.get(b);
+        if (ia == null || ib == null) {
+            return null;
+        }
+        return find(key(ia, ib));
+    }
+
+    /**
+     * Forget an object that has left the game, ending all of its contacts
+     * without telling anyone.
+     *
+     * @param c
+     */
+    public void forget(Collideable c) {
+        final Integer id = ids.remove(c);
+        if (id == null) {
+            return;
+        }
+        for (int i = 0; i < count;) {
+            final Contact contact = contacts[i];
+            if (contact.a == c || contact.b == c) {
+                remove(contact);
+            } else {
+                i++;
+            }
+        }
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Forget every object and contact.
+     */
+    public void clear() {
+        ids.clear();
+        freeCount = 0;
+        nextId = 0;
+        Arrays.fill(contacts, 0, count, null);
+        count = 0;
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * Get the id of an object, giving it one if it does not have one.
+     *
+     * @param c
+     * @return
+     */
+    private int idOf(Collideable c) {
+        final Integer id = ids.get(c);
+        if (id != null) {
+            return id;
+        }
+        final int next = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        ids.put(c, next);
+        return next;
+    }
+
+    /**
+     * Get the key of a pair of ids, which does not depend on their order.
+     *
+     * @param ia
+     * @param ib
+     * @return
+     */
+    private static long key(int ia, int ib) {
+        final int lo = Math.min(ia, ib);
+        final int hi = Math.max(ia, ib);
+        return ((long) lo << 32) | (hi & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private Contact find(long key) {
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            final int entry = table[i];
+            if (entry == EMPTY) {
+                return null;
+            }
+            if (contacts[entry].key == key) {
+                return contacts[entry];
+            }
+        }
+    }
+
+    private void insert(Contact contact) {
+        if (count == contacts.length) {
+            contacts = Arrays.copyOf(contacts, count * 2);
+        }
+        if ((count + 1) * 2 > table.length) {
+            table = new int[table.length * 2];
+            mask = table.length - 1;
+            Arrays.fill(table, EMPTY);
+            for (int n = 0; n < count; n++) {
+                place(n);
+            }
+        }
+        contact.slot = count;
+        contacts[count++] = contact;
+        place(contact.slot);
+    }
+
+    /**
+     * Put the contact at the given position of the list into the table.
+     *
+     * @param n
+     */
+    private void place(int n) {
+        int i = hash(contacts[n].key) & mask;
+        while (table[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        table[i] = n;
+    }
+
+    /**
+     * Remove a contact from the table and the list. The last contact of
+     * the list takes its place.
+     *
+     * @param contact
+     */
+    private void remove(Contact contact) {
+        // Find the entry and shift the entries after it back, so that no
+        // probe sequence is broken
+        int i = hash(contact.key) & mask;
+        while (table[i] != contact.slot) {
+            i = (i + 1) & mask;
+        }
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (table[j] == EMPTY) {
+                break;
+            }
+            final int home = hash(contacts[table[j]].key) & mask;
+            if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = EMPTY;
+
+        // Move the last contact into the freed position of the list
+        final int last = count - 1;
+        if (contact.slot != last) {
+            final Contact moved = contacts[last];
+            int k = hash(moved.key) & mask;
+            while (table[k] != last) {
+                k = (k + 1) & mask;
+            }
+            table[k] = contact.slot;
+            moved.slot = contact.slot;
+            contacts[contact.slot] = moved;
+        }
+        contacts[last] = null;
+        count--;
+    }
+
+}
@@ -207,7 +207,7 @@ public class DRoy extends Monster implements Boss, PlatformWalker, Attacker {
     public void doLogic() {
         for (Platform platform : platforms) {
             Rect tile = platform.getHitbox();
-            Direction dir = getCollideDir(tile);
+            Direction dir = getGame().getCollideDir(this, platform);
             Direction dirX = getDirX();
             Direction dirY = getDirY();
             double x = getX();
@@ -242,18 +242,18 @@ public class DRoy extends Monster implements Boss, PlatformWalker, Attacker {
     }
 
     /**
-     * Return the hitbox.
+     * Work out the hitbox.
      *
-     * @return
+     * @param box
      */
     @Override
-    public Rect getHitbox() {
-        SpriteSheet ss = getSprites().get(HITBOX);
+    protected void updateHitbox(Hitbox box) {
+        final SpriteSheet ss = getSprites().get(HITBOX);
         final double bx = getX() + ss.getOffsetX();
         final double by = getY() + ss.getOffsetY();
         final double bw = ss.getWidth();
         final double bh = ss.getHeight();
-        return new Rect(bx, by, bw, bh);
+        box.set(bx, by, bw, bh);
     }
 
     @Override
@@ -379,6 +379,12 @@ public class DRoy extends Monster implements Boss, PlatformWalker, Attacker {
      */
     private class PlayerFinder implements Scanner {
 
+        /**
+         * The list that the objects in the scan area are put into, which
+         * is reused for every scan.
+         */
+        private final List<Object> scanObjects = new ArrayList<>(0);
+
         @Override
         public ScannerImpl<Player, Platform> getScanner() {
             return new ScannerImpl<>(Player.class, Platform.class);
@@ -386,7 +392,7 @@ public class DRoy extends Monster implements Boss, PlatformWalker, Attacker {
 
         @Override
         public List<Object> getScanObjects() {
-            return getGame().getObjects();
+            return getGame().getObjects(getScanArea(), scanObjects);
         }
 
         @Override
@@ -30,6 +30,19 @@ public interface Drawable extends Comparable<Drawable> {
     void draw(Graphics g);
     
     int getZ();
+
+    /**
+     * Get how closely this {@code Drawable} follows the camera. Everything
+     * in the world has a factor of one, so it is drawn where it is relative
+     * to the screen. Something fixed to the screen, like the heads up
+     * display, has a factor of zero. Anything in between scrolls by that
+     * fraction of the camera movement, to give the impression of depth.
+     *
+     * @return the parallax factor
+     */
+    default double getParallax() {
+        return 1.0;
+    }
     
     @Override
     default int compareTo(Drawable o) {
@@ -9,7 +9,7 @@ import org.newdawn.slick.Color;
  * out, flashing certain colors, etc. These effects are dependent on the
  * game's updating cycle which means that they must somehow be updated
  * according to the passed time. That is what the effects controller does.
- * Whenever a new effect is created on a sprite sheet, that effect object
+ * Whenever a new effect is created on an entity, that effect object
  * is added to the controller's list. The controller, as a singleton, is
  * added once to the game objects list and updated with it. It also makes
  * sure that there is exactly one copy of itself in the game list at all
@@ -31,70 +31,42 @@ public class Effects implements Updateable {
      * @param device
      * @param game
      */
-    private static void addDevice(Device device, Game game) {
+    private static synchronized void addDevice(Device device, Game game) {
         if (controller == null) {
             controller = new Effects();
         }
         controller.addDevice(device);
-        if (!game.getObjects().contains(controller) && !game.objectAddQueued(controller)) {
+        if (!game.contains(controller) && !game.objectAddQueued(controller)) {
             game.add(controller);
         }
     }
 
     /**
-     * Fade in or out a sprite sheet over some time.
+     * Fade in or out an entity over some time. Only the {@code Tint} of
+     * the entity changes, so its sprites, which may be shared, are left
+     * alone.
      *
      * @param fade {@link Fade#IN} or {@link Fade#OUT}.
      * @param game
-     * @param sheet
+     * @param entity
      * @param delay the time to fade in or out
      */
-    public static void fade(Fade fade, Game game, SpriteSheet sheet, int delay) {
-        addDevice(new FadeTransition(sheet, fade, delay), game);
+    public static void fade(Fade fade, Game game, Entity entity, int delay) {
+        addDevice(new FadeTransition(entity.getTint(), fade, delay), game);
     }
 
     /**
-     * @see Effects#fade(kawaiiklash.Effects.Fade, kawaiiklash.Game,
-     * kawaiiklash.SpriteSheet, int)
-     * @param fade
-     * @param game
-     * @param sheets
-     * @param delay
-     */
-    public static void fade(Fade fade, Game game, List<SpriteSheet> sheets, int delay) {
-        for (SpriteSheet sheet : sheets) {
-            fade(fade, game, sheet, delay);
-        }
-    }
-
-    /**
-     * Flash a sprite sheet a certain color.
+     * Flash an entity a certain color.
      *
      * @param color the color to flash
      * @param game
-     * @param sheet
+     * @param entity
      * @param flashes the number of flashes
      * @param duration the duration of each flash
      * @param delay the delay between each flash
      */
-    public static void flash(Color color, Game game, SpriteSheet sheet, int flashes, int duration, int delay) {
-        addDevice(new ColorFlash(sheet, color, flashes, duration, delay), game);
-    }
-
-    /**
-     * @see Effects#flash(org.newdawn.slick.Color, kawaiiklash.Game,
-     * kawaiiklash.SpriteSheet, int, int, int)
-     * @param color
-     * @param game
-     * @param sheets
-     * @param flashes
-     * @param duration
-     * @param delay
-     */
-    public static void flash(Color color, Game game, List<SpriteSheet> sheets, int flashes, int duration, int delay) {
-        for (SpriteSheet sheet : sheets) {
-            flash(color, game, sheet, flashes, duration, delay);
-        }
+    public static void flash(Color color, Game game, Entity entity, int flashes, int duration, int delay) {
+        addDevice(new ColorFlash(entity.getTint(), color, flashes, duration, delay), game);
     }
 
     /**
@@ -119,7 +91,9 @@ public class Effects implements Updateable {
      * @param device
      */
     private void addDevice(Device device) {
-        add.add(device);
+        synchronized (add) {
+            add.add(device);
+        }
     }
 
     /**
@@ -129,8 +103,10 @@ public class Effects implements Updateable {
      */
     @Override
     public void update(int dt) {
-        devices.addAll(add);
-        add.clear();
+        synchronized (add) {
+            devices.addAll(add);
+            add.clear();
+        }
         for (Device device : devices) {
             device.update(dt);
             if (device.isComplete()) {
@@ -177,7 +153,7 @@ public class Effects implements Updateable {
      */
     private static class FadeTransition implements Device {
 
-        private final SpriteSheet sheet;
+        private final Tint tint;
         private final Fade fade;
         private final int delay;
 
@@ -185,8 +161,8 @@ public class Effects implements Updateable {
 
         private boolean complete;
 
-        private FadeTransition(SpriteSheet sheet, Fade fade, int delay) {
-            this.sheet = sheet;
+        private FadeTransition(Tint tint, Fade fade, int delay) {
+            this.tint = tint;
             this.fade = fade;
             this.delay = delay;
             alpha = fade.alpha;
@@ -201,7 +177,7 @@ public class Effects implements Updateable {
                 complete = true;
                 alpha = alpha < 0 ? Fade.IN.alpha : Fade.OUT.alpha;
             }
-            sheet.setFilter(new Color(1.0f, 1.0f, 1.0f, alpha));
+            tint.setAlpha(alpha);
         }
 
         @Override
@@ -216,9 +192,7 @@ public class Effects implements Updateable {
      */
     private static class ColorFlash implements Device {
 
-        private static final Color clean = new Color(1.0f, 1.0f, 1.0f, 1.0f);
-
-        private final SpriteSheet sheet;
+        private final Tint tint;
         private final Color color;
         private final int flashes;
         private final int duration;
@@ -229,8 +203,8 @@ public class Effects implements Updateable {
         private boolean applied;
         private boolean complete;
 
-        private ColorFlash(SpriteSheet sheet, Color color, int flashes, int duration, int delay) {
-            this.sheet = sheet;
+        private ColorFlash(Tint tint, Color color, int flashes, int duration, int delay) {
+            this.tint = tint;
             this.color = color;
             this.flashes = flashes;
             this.duration = duration;
@@ -238,7 +212,7 @@ public class Effects implements Updateable {
             count = 0;
             applied = true;
             complete = false;
-            sheet.setFilter(color);
+            tint.setColor(color);
         }
 
         @Override
@@ -249,7 +223,7 @@ public class Effects implements Updateable {
                     if (count >= duration) {
                         count %= duration;
                         applied = false;
-                        sheet.setFilter(clean);
+                        tint.clearColor();
                         flashed++;
                         if (flashed >= flashes) {
                             complete = true;
@@ -260,7 +234,7 @@ public class Effects implements Updateable {
                     if (count >= delay) {
                         count %= delay;
                         applied = true;
-                        sheet.setFilter(color);
+                        tint.setColor(color);
                     }
                 }
             }
@@ -0,0 +1,274 @@
+package kawaiiklash;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code ElementRegistry} finds the classes named by the elements of a
+ * level file, and by the monster, tile and player type names. A class is
+ * looked up the first time its name is asked for, and from then on, its
+ * name maps to an {@link Element} that holds method handles to its
+ * constructors and to its {@code String} setters. So the packages are only
+ * searched once for each name, and creating an object and setting its
+ * attributes no longer goes through reflection.
+ * <p>
+ * The registry may be used from any thread.
+ *
+ * @author Jeff Niu
+ */
+public class ElementRegistry {
+
+    /**
+     * The single instance of this class.
+     */
+    private static ElementRegistry registry;
+
+    /**
+     * Get the single instance of this class.
+     *
+     * @return
+     */
+    public static synchronized ElementRegistry get() {
+        if (registry == null) {
+            registry = new ElementRegistry();
+        }
+        return registry;
+    }
+
+    /**
+     * The class of an element, with handles to its constructors and its
+     * setters.
+     */
+    public static final class Element {
+
+        private final Class<?> type;
+
+        /**
+         * The constructors that take one argument, by the type of the
+         * argument. Each one takes an {@code Object} and returns an
+         * {@code Object}. They are found when they are first used.
+         */
+        private final ConcurrentHashMap<Class<?>, MethodHandle> constructors;
+
+        /**
+         * The public methods that take one {@code String}, by their names.
+         * Each one takes an {@code Object} and a {@code String} and returns
+         * nothing.
+         */
+        private final Map<String, MethodHandle> setters;
+
+        private Element(Class<?> type) {
+            this.type = type;
+            constructors = new ConcurrentHashMap<>(2);
+            setters = new HashMap<>();
+            final MethodType setter = MethodType.methodType(void.class, Object.class, String.class);
+            for (Method m : type.getMethods()) {
+                if (Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 1 || m.getParameterTypes()[0] != String.class) {
+                    continue;
+                }
+                try {
+                    setters.putIfAbsent(m.getName(), LOOKUP.unreflect(m).asType(setter));
+                } catch (IllegalAccessException ex) {
+                    // A method that cannot be used is left out
+                }
+            }
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Check whether the element is a kind of some class.
+         *
+         * @param cls
+         * @return
+         */
+        public boolean is(Class<?> cls) {
+            return cls.isAssignableFrom(type);
+        }
+
+        /**
+         * Get the handle to the constructor that takes one argument of a
+         * type.
+         *
+         * @param param the type of the argument
+         * @return the handle, or null if there is no such constructor
+         */
+        private MethodHandle constructor(Class<?> param) {
+            MethodHandle ctor = constructors.get(param);
+            if (ctor == null && !constructors.containsKey(param)) {
+                try {
+                    ctor = LOOKUP.findConstructor(type, MethodType.methodType(void.class, param))
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                } catch (NoSuchMethodException | IllegalAccessException ex) {
+                    ctor = NONE;
+                }
+                constructors.put(param, ctor);
+            }
+            return ctor != NONE ? ctor : null;
+        }
+
+        /**
+         * Check whether the element has a constructor that takes one
+         * argument of a type.
+         *
+         * @param param
+         * @return
+         */
+        public boolean canCreate(Class<?> param) {
+            return constructor(param) != null;
+        }
+
+        /**
+         * Create an instance of the element.
+         *
+         * @param param the type of the constructor argument
+         * @param arg the constructor argument
+         * @return the instance
+         * @throws NoSuchMethodException if there is no such constructor
+         * @throws InvocationTargetException if the constructor throws
+         */
+        public Object create(Class<?> param, Object arg) throws NoSuchMethodException, InvocationTargetException {
+            final MethodHandle ctor = constructor(param);
+            if (ctor == null) {
+                throw new NoSuchMethodException(type.getName() + ".<init>(" + param.getName() + ")");
+            }
+            try {
+                return ctor.invokeExact(arg);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+        /**
+         * Check whether the element has a setter.
+         *
+         * @param name
+         * @return
+         */
+        public boolean hasSetter(String name) {
+            return setters.containsKey(name);
+        }
+
+        /**
+         * Call a setter of an instance of the element.
+         *
+         * @param obj the instance
+         * @param name the name of the setter
+         * @param value
+         * @throws NoSuchMethodException if there is no such setter
+         * @throws InvocationTargetException if the setter throws
+         */
+        public void set(Object obj, String name, String value) throws NoSuchMethodException, InvocationTargetException {
+            final MethodHandle setter = setters.get(name);
+            if (setter == null) {
+                throw new NoSuchMethodException(type.getName() + "." + name + "(String)");
+            }
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable ex) {
+                throw new InvocationTargetException(ex);
+            }
+        }
+
+    }
+
+    /**
+     * The lookup used for all the handles. The element classes are in this
+     * package, so it can see all of them.
+     */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Marks a constructor or a name that does not exist.
+     */
+    private static final MethodHandle NONE = MethodHandles.constant(Object.class, null);
+    private static final Element MISSING = new Element(Object.class);
+
+    /**
+     * The elements that have been looked up, by their names.
+     */
+    private final ConcurrentHashMap<String, Element> elements;
+
+    private ElementRegistry() {
+        elements = new ConcurrentHashMap<>(100);
+    }
+
+    /**
+     * Find the element with a name, looking for its class the first time.
+     *
+     * @param name the simple name of the class
+     * @return the element, or null if there is no such class
+     */
+    public Element find(String name) {
+        Element element = elements.get(name);
+        if (element == null) {
+            final Class<?> cls = findClass(name);
+            element = cls != null ? new Element(cls) : MISSING;
+            final Element previous = elements.putIfAbsent(name, element);
+            if (previous != null) {
+                element = previous;
+            }
+        }
+        return element != MISSING ? element : null;
+    }
+
+    /**
+     * Create an instance of an element from its name, with the constructor
+     * that takes the {@code Game}.
+     *
+     * @param <T>
+     * @param name the simple name of the class
+     * @param type the kind of element that is expected
+     * @param game
+     * @return the instance, or null if there is no such element of that
+     * kind, or it could not be created
+     */
+    public <T> T create(String name, Class<T> type, Game game) {
+        final Element element = find(name);
+        if (element == null || !element.is(type)) {
+            return null;
+        }
+        try {
+            return type.cast(element.create(Game.class, game));
+        } catch (NoSuchMethodException | InvocationTargetException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Find a class by its simple name, in this package first and then in
+     * the others.
+     *
+     * @param name
+     * @return
+     */
+    private static Class<?> findClass(String name) {
+        final String home = ElementRegistry.class.getPackage().getName();
+        try {
+            return Class.forName(home + "." + name);
+        } catch (ClassNotFoundException | NoClassDefFoundError ex) {
+            // Look in the other packages
+        }
+        for (Package p : Package.getPackages()) {
+            if (p.getName().equals(home)) {
+                continue;
+            }
+            try {
+                return Class.forName(p.getName() + "." + name);
+            } catch (ClassNotFoundException | NoClassDefFoundError ex) {
+                // Try the next package
+            }
+        }
+        return null;
+    }
+
+}
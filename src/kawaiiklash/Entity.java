@@ -28,7 +28,7 @@ import org.newdawn.slick.Graphics;
  * @author Jeff Niu
  * @version 24 February 2015
  */
-public abstract class Entity implements Drawable, Updateable, Interactable {
+public abstract class Entity implements Drawable, Updateable, Interactable, Interpolatable {
 
     /**
      * The conversion unit used to convert milliseconds to seconds. This is
@@ -84,15 +84,22 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
     private final Game game;
 
     /**
-     * The horizontal position (p). Used in screen coordinates.
+     * The horizontal position (p). Used in world coordinates.
      */
     private double x;
 
     /**
-     * The vertical position (p). Used in screen coordinates.
+     * The vertical position (p). Used in world coordinates.
      */
     private double y;
 
+    /**
+     * The position at the start of the current simulation step, used to
+     * draw the {@code Entity} between steps.
+     */
+    private double previousX;
+    private double previousY;
+
     /**
      * The horizontal speed (p/s).
      */
@@ -189,6 +196,18 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
      */
     private int state;
 
+    /**
+     * The hitbox of the {@code Entity}, which is only worked out again
+     * when its position, state, frame or direction changes.
+     */
+    private final Hitbox hitbox;
+
+    /**
+     * The tint that the {@code Entity} is drawn with, which is changed by
+     * the {@link Effects}.
+     */
+    private final Tint tint;
+
     /**
      * This instance initializer retrieves the reference path of this
      * {@code Entity} based on said {@code Entity}'s name. This is done
@@ -220,6 +239,8 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
         dirY = NONE;
 
         // Load the sprites and sounds
+        hitbox = new Hitbox();
+        tint = new Tint();
         effects = new ArrayList<>(3);
 
         // Set the states
@@ -269,6 +290,22 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
         return y;
     }
 
+    @Override
+    public void savePosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    @Override
+    public double getPreviousX() {
+        return previousX;
+    }
+
+    @Override
+    public double getPreviousY() {
+        return previousY;
+    }
+
     /**
      * Get the horizontal speed.
      *
@@ -424,20 +461,45 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
     }
 
     /**
-     * Get the {@code Rect} that represents this {@code Entity}.
+     * Get the {@code Rect} that represents this {@code Entity}. The same
+     * read only {@code Hitbox} is returned every time, and it is only
+     * worked out again, using {@link #updateHitbox}, when the position,
+     * state, frame or direction of the {@code Entity} has changed.
      *
      * @return
      */
     @Override
     public Rect getHitbox() {
-        Rect hitbox = new Rect();
-        hitbox.x = x + getOffsetX();
-        hitbox.y = y + getOffsetY();
-        hitbox.width = getWidth();
-        hitbox.height = getHeight();
+        synchronized (hitbox) {
+            final int frame = getFrame();
+            if (hitbox.isStale(x, y, state, frame, dirX)) {
+                updateHitbox(hitbox);
+                hitbox.validate(x, y, state, frame, dirX);
+            }
+        }
         return hitbox;
     }
 
+    /**
+     * Work out the hitbox of this {@code Entity}. Subclasses with a
+     * different hitbox override this method rather than
+     * {@link #getHitbox()}. The hitbox may only depend on the position,
+     * state, frame and direction, unless {@link #invalidateHitbox()} is
+     * called when anything else it depends on changes.
+     *
+     * @param box the hitbox to set
+     */
+    protected void updateHitbox(Hitbox box) {
+        box.set(x + getOffsetX(), y + getOffsetY(), getWidth(), getHeight());
+    }
+
+    /**
+     * Make the hitbox be worked out again the next time it is asked for.
+     */
+    protected void invalidateHitbox() {
+        hitbox.invalidate();
+    }
+
     /**
      * Get the current animation frame number.
      *
@@ -598,16 +660,15 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
      */
     public void checkBounds() {
         final Rect screen = getGame().getScreen();
-        final Rect sBox = new Rect(0.0, 0.0, screen.getWidth(), screen.getHeight());
-        if (getHitbox().intersects(sBox)) {
+        if (getHitbox().intersects(screen)) {
             isInBounds();
-        } else if (x + getOffsetX() > screen.getWidth()) {
+        } else if (x + getOffsetX() > screen.getMaxX()) {
             isOutOfBounds(RIGHT);
-        } else if (x + getOffsetX() + getWidth() < 0) {
+        } else if (x + getOffsetX() + getWidth() < screen.getMinX()) {
             isOutOfBounds(LEFT);
-        } else if (y + getOffsetY() > screen.getHeight()) {
+        } else if (y + getOffsetY() > screen.getMaxY()) {
             isOutOfBounds(DOWN);
-        } else if (y + getOffsetY() + getHeight() < 0) {
+        } else if (y + getOffsetY() + getHeight() < screen.getMinY()) {
             isOutOfBounds(UP);
         }
     }
@@ -788,6 +849,15 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
         return Collections.unmodifiableList(sprites);
     }
 
+    /**
+     * Get the {@code Tint} that the {@code Entity} is drawn with.
+     *
+     * @return
+     */
+    public Tint getTint() {
+        return tint;
+    }
+
     public List<Sound> getSounds() {
         return Collections.unmodifiableList(sounds);
     }
@@ -937,7 +1007,7 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
         final List<SoundEffect> remove = new ArrayList<>(effects.size());
         for (final SoundEffect effect : effects) {
             if (effect.getName().equals(name)) {
-                effect.getSound().getAudio().stop();
+                effect.getSound().stop();
                 remove.add(effect);
             }
         }
@@ -993,7 +1063,7 @@ public abstract class Entity implements Drawable, Updateable, Interactable {
         }
 
         private boolean played() {
-            return played && !sound.getAudio().isPlaying();
+            return played && !sound.isPlaying();
         }
 
         private String getName() {
@@ -0,0 +1,315 @@
+package kawaiiklash;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An {@code Expression} is an arithmetic expression from an attribute of a
+ * level or data file, such as {@code x="4500+20*90+1200"}. Expressions may
+ * have numbers, named constants, {@code + - * /} and parentheses.
+ * <p>
+ * Each attribute value is compiled once, into a short program that works
+ * on a stack of numbers, and the compiled expressions are cached by their
+ * text. Evaluating an expression only allocates the string of its
+ * result. Values that are not expressions, such as {@code RIGHT} or
+ * {@code Brick}, are passed on to the setters as they are, and so are
+ * expressions that name a constant that is not given.
+ * <p>
+ * Expressions are not thread safe, since each one reuses its stack. They
+ * are only used by the {@link Parser}.
+ *
+ * @author Jeff Niu
+ */
+public class Expression {
+
+    /**
+     * The instructions of a compiled expression. Each instruction that
+     * pushes a value is followed by the index of the value.
+     */
+    private static final int NUMBER = 0;
+    private static final int CONSTANT = 1;
+    private static final int ADD = 2;
+    private static final int SUBTRACT = 3;
+    private static final int MULTIPLY = 4;
+    private static final int DIVIDE = 5;
+    private static final int NEGATE = 6;
+
+    /**
+     * The compiled expressions, by their text. Text that is not an
+     * expression maps to {@link #INVALID}.
+     */
+    private static final HashMap<String, Expression> CACHE = new HashMap<>(200);
+    private static final Expression INVALID = new Expression(new int[0], new double[0], new String[0], 0);
+
+    /**
+     * Compile an expression, or get it from the cache.
+     *
+     * @param text
+     * @return the expression, or null if the text is not an expression
+     */
+    public static Expression compile(String text) {
+        Expression e = CACHE.get(text);
+        if (e == null) {
+            e = new Compiler(text).compile();
+            CACHE.put(text, e != null ? e : INVALID);
+        }
+        return e != INVALID ? e : null;
+    }
+
+    /**
+     * Evaluate an attribute value. If the value is an expression, the
+     * result is given as an integer if it is whole, as Javascript would.
+     * Otherwise, the value is given back as it is.
+     *
+     * @param text the attribute value
+     * @param constants the named constants, which may be null
+     * @return
+     */
+    public static String evaluate(String text, Map<String, Double> constants) {
+        final Expression e = compile(text);
+        if (e == null) {
+            return text;
+        }
+        final String result = e.evaluate(constants);
+        return result != null ? result : text;
+    }
+
+    private final int[] program;
+    private final double[] numbers;
+    private final String[] names;
+    private final double[] stack;
+
+    private Expression(int[] program, double[] numbers, String[] names, int depth) {
+        this.program = program;
+        this.numbers = numbers;
+        this.names = names;
+        stack = new double[depth];
+    }
+
+    /**
+     * Evaluate the expression.
+     *
+     * @param constants the named constants, which may be null
+     * @return the result, or null if a constant is not given
+     */
+    public String evaluate(Map<String, Double> constants) {
+        int top = 0;
+        for (int pc = 0; pc < program.length; pc++) {
+            switch (program[pc]) {
+                case NUMBER:
+                    stack[top++] = numbers[program[++pc]];
+                    break;
+                case CONSTANT:
+                    final Double value = constants != null ? constants.get(names[program[++pc]]) : null;
+                    if (value == null) {
+                        return null;
+                    }
+                    stack[top++] = value;
+                    break;
+                case ADD:
+                    top--;
+                    stack[top - 1] += stack[top];
+                    break;
+                case SUBTRACT:
+                    top--;
+                    stack[top - 1] -= stack[top];
+                    break;
+                case MULTIPLY:
+                    top--;
+                    stack[top - 1] *= stack[top];
+                    break;
+                case DIVIDE:
+                    top--;
+                    stack[top - 1] /= stack[top];
+                    break;
+                case NEGATE:
+                    stack[top - 1] = -stack[top - 1];
+                    break;
+            }
+        }
+        final double result = stack[0];
+        if (result == Math.rint(result) && Math.abs(result) < 1e15) {
+            return Long.toString((long) result);
+        }
+        return Double.toString(result);
+    }
+
+    /**
+     * A recursive descent compiler for expressions.
+     */
+    private static class Compiler {
+
+        private final String text;
+        private int pos;
+
+        private int[] program;
+        private int length;
+        private double[] numbers;
+        private int numberCount;
+        private String[] names;
+        private int nameCount;
+        private int depth;
+        private int maxDepth;
+
+        private Compiler(String text) {
+            this.text = text;
+            program = new int[16];
+            numbers = new double[4];
+            names = new String[2];
+        }
+
+        /**
+         * Compile the text.
+         *
+         * @return the expression, or null if the text is not an expression
+         */
+        private Expression compile() {
+            if (!expression()) {
+                return null;
+            }
+            skipSpace();
+            if (pos != text.length()) {
+                return null;
+            }
+            final int[] p = new int[length];
+            System.arraycopy(program, 0, p, 0, length);
+            final double[] n = new double[numberCount];
+            System.arraycopy(numbers, 0, n, 0, numberCount);
+            final String[] s = new String[nameCount];
+            System.arraycopy(names, 0, s, 0, nameCount);
+            return new Expression(p, n, s, maxDepth);
+        }
+
+        // expression := term (('+' | '-') term)*
+        private boolean expression() {
+            if (!term()) {
+                return false;
+            }
+            while (true) {
+                final char c = peek();
+                if (c != '+' && c != '-') {
+                    return true;
+                }
+                pos++;
+                if (!term()) {
+                    return false;
+                }
+                emit(c == '+' ? ADD : SUBTRACT);
+                depth--;
+            }
+        }
+
+        // term := unary (('*' | '/') unary)*
+        private boolean term() {
+            if (!unary()) {
+                return false;
+            }
+            while (true) {
+                final char c = peek();
+                if (c != '*' && c != '/') {
+                    return true;
+                }
+                pos++;
+                if (!unary()) {
+                    return false;
+                }
+                emit(c == '*' ? MULTIPLY : DIVIDE);
+                depth--;
+            }
+        }
+
+        // unary := ('-' | '+') unary | primary
+        private boolean unary() {
+            final char c = peek();
+            if (c == '-' || c == '+') {
+                pos++;
+                if (!unary()) {
+                    return false;
+                }
+                if (c == '-') {
+                    emit(NEGATE);
+                }
+                return true;
+            }
+            return primary();
+        }
+
+        // primary := number | name | '(' expression ')'
+        private boolean primary() {
+            final char c = peek();
+            if (c == '(') {
+                pos++;
+                if (!expression() || peek() != ')') {
+                    return false;
+                }
+                pos++;
+                return true;
+            }
+            final int start = pos;
+            if (Character.isDigit(c) || c == '.') {
+                while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                    pos++;
+                }
+                final double value;
+                try {
+                    value = Double.parseDouble(text.substring(start, pos));
+                } catch (NumberFormatException ex) {
+                    return false;
+                }
+                if (numberCount == numbers.length) {
+                    numbers = Arrays.copyOf(numbers, numberCount * 2);
+                }
+                numbers[numberCount] = value;
+                emit(NUMBER);
+                emit(numberCount++);
+                push();
+                return true;
+            }
+            if (Character.isLetter(c) || c == '_') {
+                while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+                    pos++;
+                }
+                if (nameCount == names.length) {
+                    names = Arrays.copyOf(names, nameCount * 2);
+                }
+                names[nameCount] = text.substring(start, pos);
+                emit(CONSTANT);
+                emit(nameCount++);
+                push();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Skip any spaces and get the next character, or 0 at the end.
+         *
+         * @return
+         */
+        private char peek() {
+            skipSpace();
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        private void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private void emit(int instruction) {
+            if (length == program.length) {
+                program = Arrays.copyOf(program, length * 2);
+            }
+            program[length++] = instruction;
+        }
+
+        private void push() {
+            depth++;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+    }
+
+}
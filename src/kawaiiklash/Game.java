@@ -1,5 +1,6 @@
 package kawaiiklash;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.state.GameState;
@@ -20,6 +21,48 @@ public interface Game extends GameState {
      */
     List<Object> getObjects();
 
+    /**
+     * Get the game objects whose hitboxes overlap an area, in a new list.
+     * Anything that asks every step should keep its own list and use
+     * {@link #getObjects(Rect, List)} instead.
+     *
+     * @param area
+     * @return
+     */
+    default List<Object> getObjects(Rect area) {
+        return getObjects(area, new ArrayList<>());
+    }
+
+    /**
+     * Put the game objects whose hitboxes overlap an area into a list. The
+     * list is cleared first, so that it can be kept and reused.
+     *
+     * @param area
+     * @param out
+     * @return the list
+     */
+    List<Object> getObjects(Rect area, List<Object> out);
+
+    /**
+     * Whether or not an object is currently in the game.
+     *
+     * @param o
+     * @return
+     */
+    boolean contains(Object o);
+
+    /**
+     * Get the {@code Direction} in which one {@code Collideable} collides
+     * with another. If the two are touching, the direction is taken from
+     * their contact, which only works it out again when one of them has
+     * moved.
+     *
+     * @param c
+     * @param other
+     * @return
+     */
+    Direction getCollideDir(Collideable c, Collideable other);
+
     /**
      * Add an object to the game.
      *
@@ -52,7 +95,8 @@ public interface Game extends GameState {
     boolean[] keyDown();
 
     /**
-     * Get the {@code Rect} that represents the game screen.
+     * Get the {@code Rect} that represents the game screen. Its position is
+     * the position of the camera in the world.
      *
      * @return
      */
@@ -60,7 +104,8 @@ public interface Game extends GameState {
 
     /**
      * Get the border area that represents when the screen should scroll
-     * according to the player's position.
+     * according to the player's position. The border is relative to the
+     * screen.
      *
      * @return
      */
@@ -74,14 +119,14 @@ public interface Game extends GameState {
     Player getPlayer();
 
     /**
-     * Scroll the screen horizontally.
+     * Scroll the screen horizontally by moving the camera.
      *
      * @param xScroll
      */
     void xScroll(double xScroll);
 
     /**
-     * Scroll the screen vertically.
+     * Scroll the screen vertically by moving the camera.
      *
      * @param yScroll
      */
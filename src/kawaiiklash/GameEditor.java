@@ -1,11 +1,8 @@
 package kawaiiklash;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import org.lwjgl.input.Keyboard;
 import org.newdawn.slick.Color;
 import org.newdawn.slick.GameContainer;
@@ -41,9 +38,9 @@ public class GameEditor extends GameImpl {
 
     private boolean[] keyPressed;
     private boolean update;
-    private boolean useQuad;
+    private boolean showIndex;
 
-    private QuadTree quad;
+    private List<Object> found;
 
     public GameEditor(Master master) {
         this(master, null);
@@ -64,13 +61,10 @@ public class GameEditor extends GameImpl {
 
         keyPressed = new boolean[Keyboard.KEYBOARD_SIZE];
         update = false;
-        useQuad = false;
+        showIndex = false;
         debugging(true);
 
-        final Rect screen = getScreen();
-        final Vector qCenter = new Vector(screen.getWidth() / 2, screen.getHeight() / 2);
-        final AABB qBounds = new AABB(qCenter, screen.getWidth(), screen.getHeight());
-        quad = new QuadTree(0, qBounds);
+        found = new ArrayList<>(100);
 
         final InputProvider provider = getProvider();
         Command[] commands = new Command[Keyboard.KEYBOARD_SIZE];
@@ -87,15 +81,30 @@ public class GameEditor extends GameImpl {
             debugging(!debugging());
         }));
         provider.bindCommand(new KeyControl(Keyboard.KEY_9), new Action(() -> {
-            useQuad = !useQuad;
+            showIndex = !showIndex;
         }));
 
         exchangeObjects();
     }
 
+    /**
+     * Run the game if it is not paused. While it is paused, a step in
+     * which no time passes is still run, so the objects that were placed
+     * or taken away show up at once, and the tiles that scroll back onto
+     * the screen know that they are in bounds.
+     *
+     * @param gc
+     * @param master
+     * @param dt
+     * @throws SlickException
+     */
     @Override
     public void update(GameContainer gc, StateBasedGame master, int dt) throws SlickException {
-        super.update(gc, master, update ? dt : 0);
+        if (update) {
+            super.update(gc, master, dt);
+        } else {
+            stepPaused();
+        }
         final double delta = dt / MILLISECONDS * SCROLL_SPEED;
         if (keyPressed[Keyboard.KEY_LEFT]) {
             xScroll(-delta);
@@ -107,33 +116,27 @@ public class GameEditor extends GameImpl {
         } else if (keyPressed[Keyboard.KEY_DOWN]) {
             yScroll(delta);
         }
-        if (useQuad) {
-            quad.clear();
-            final List<Object> objs = getObjects();
-            for (final Object o : objs) {
-                if (o instanceof Collideable) {
-                    final AABB box = new AABB(((Collideable) o).getHitbox());
-                    quad.insert(box);
-                }
-            }
-        }
     }
 
     @Override
     public void render(GameContainer gc, StateBasedGame master, Graphics g) throws SlickException {
         super.render(gc, master, g);
-        if (useQuad) {
-            quad.draw(g);
-            Set<AABB> boxes = new HashSet<>(100);
+        if (showIndex) {
+            refreshIndex();
+            final Rect screen = getScreen();
+            g.translate((float) -screen.getX(), (float) -screen.getY());
+            getIndex().draw(g);
             final Input input = gc.getInput();
-            final AABB box = new AABB(new Vector(input.getMouseX(), input.getMouseY()), 100, 100);
-            boxes = quad.retrieve(boxes, box);
+            final Rect box = new Rect(screen.getX() + input.getMouseX() - 50, screen.getY() + input.getMouseY() - 50, 100, 100);
+            found.clear();
+            query(box, found);
             g.setColor(Color.blue);
             box.draw(g);
-            for (final AABB aabb : boxes) {
-                g.setColor(Color.green);
-                aabb.draw(g);
+            g.setColor(Color.green);
+            for (final Object o : found) {
+                ((Collideable) o).getHitbox().draw(g);
             }
+            g.resetTransform();
         }
     }
 
@@ -178,12 +181,9 @@ public class GameEditor extends GameImpl {
             return;
         }
         LevelConfiguration levelConfig = null;
-        List<Object> levelObjects = new ArrayList<>(objects.size());
         for (Object obj : objects) {
             if (obj instanceof LevelConfiguration) {
                 levelConfig = (LevelConfiguration) obj;
-            } else {
-                levelObjects.add(obj);
             }
         }
         if (levelConfig != null) {
@@ -200,75 +200,30 @@ public class GameEditor extends GameImpl {
         if (playerCount != 1) {
             return;
         }
-        final List<Background> backgrounds = new ArrayList<>(objects.size());
-        final List<Background> foregrounds = new ArrayList<>(objects.size());
-        final List<Platform> tiles = new ArrayList<>(objects.size());
-        final List<Monster> monsters = new ArrayList<>(objects.size());
-        final List<Item> items = new ArrayList<>(objects.size());
-        final List<Object> otherObjects = new ArrayList<>(objects.size());
+        // The draw order is kept by the render queue, so the objects stay
+        // in the order of the level file
         Player player = null;
-        for (Object obj : levelObjects) {
-            if (obj instanceof Background) {
-                Background bck = (Background) obj;
-                if (bck.isForeground()) {
-                    foregrounds.add(bck);
-                } else {
-                    backgrounds.add(bck);
-                }
-            } else if (obj instanceof Platform) {
-                tiles.add((Platform) obj);
-            } else if (obj instanceof Monster) {
-                monsters.add((Monster) obj);
-            } else if (obj instanceof Player) {
-                player = (Player) obj;
-            } else if (obj instanceof Item) {
-                items.add((Item) obj);
-            } else {
-                otherObjects.add(obj);
-            }
-        }
-        objects.clear();
-        objects.add(levelConfig);
-        objects.addAll(backgrounds);
-        objects.addAll(otherObjects);
-        objects.addAll(tiles);
-        objects.addAll(monsters);
-        objects.addAll(items);
-        final Package[] packages = Package.getPackages();
-        Class<?> playerClass = null;
-        Constructor<?> playerConstructor = null;
-        for (Package p : packages) {
-            String tentative = p.getName() + "." + DEFAULT_PLAYER.toString();
-            try {
-                playerClass = Class.forName(tentative);
-                playerConstructor = playerClass.getConstructor(Player.class);
-            } catch (ClassNotFoundException | NoSuchMethodException | SecurityException ex) {
-                continue;
+        int playerIndex = -1;
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i) instanceof Player) {
+                player = (Player) objects.get(i);
+                playerIndex = i;
             }
-            break;
         }
-        if (playerClass != null && playerConstructor != null) {
+        final ElementRegistry.Element playerElement = ElementRegistry.get().find(DEFAULT_PLAYER.toString());
+        if (playerElement != null && playerElement.is(Player.class) && playerElement.canCreate(Player.class)) {
             try {
-                player = (Player) playerConstructor.newInstance(player);
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+                player = (Player) playerElement.create(Player.class, player);
+            } catch (NoSuchMethodException | InvocationTargetException ex) {
                 return;
             }
         } else {
             return;
         }
         player.scroll(false);
-        objects.add(player);
-        objects.addAll(foregrounds);
+        objects.set(playerIndex, player);
         setObjects(objects);
         exchangeObjects();
-        objects = getObjects();
-        for (Object obj : objects) {
-            if (obj instanceof Cartesian) {
-                Cartesian ent = (Cartesian) obj;
-                ent.setX(ent.getX() - getScreen().getX());
-                ent.setY(ent.getY() - getScreen().getY());
-            }
-        }
     }
 
 }
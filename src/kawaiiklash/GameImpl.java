@@ -1,16 +1,22 @@
 package kawaiiklash;
 
 import java.awt.Toolkit;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 import static kawaiiklash.Utility.arraycopy;
 import static kawaiiklash.Utility.fail;
 import org.lwjgl.input.Keyboard;
 import org.newdawn.slick.GameContainer;
 import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
 import org.newdawn.slick.SlickException;
 import org.newdawn.slick.command.Command;
 import org.newdawn.slick.command.InputProvider;
@@ -50,11 +56,24 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
     };
 
     /**
-     * The minimum value of the change in time for the game to update. This
-     * forces a minimum update speed, but also prevents large lag spikes
-     * that may mess with game logic.
+     * The maximum change in time that is simulated in one frame. If a frame
+     * takes longer than this, the rest of the time is dropped, so that a
+     * slow frame cannot cause more and more steps to be run. This also
+     * prevents large lag spikes that may mess with game logic.
      */
-    public static final int MINIMUM_TIME_RESOLUTION = 35;
+    public static final int MAXIMUM_FRAME_TIME = 35;
+    /**
+     * The length of one simulation step, in milliseconds. The game is
+     * always simulated in steps of this length, regardless of the frame
+     * rate.
+     */
+    public static final int TIME_STEP = 8;
+    /**
+     * In parallel mode, the number of chunks into which the objects are
+     * split for each worker thread, so that the work stays balanced when
+     * some objects take longer than others.
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
     /**
      * A ratio value for the border described by the game screen where the
      * player causes the screen to scroll.
@@ -83,17 +102,40 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
      * The current level of the current that is being played.
      */
     private int level;
+    /**
+     * The reference of the level that was last loaded.
+     */
+    private String loadedLevel;
 
     /**
-     * The {@code Rect} that represents the screen.
+     * The {@code Rect} that represents the screen. Its position is the
+     * position of the camera in the world, and scrolling only moves this
+     * {@code Rect}; the game objects keep their world positions and are
+     * shifted when they are drawn.
      */
     private Rect screen;
+    /**
+     * The position of the screen at the start of the current simulation
+     * step, used to draw the camera between steps.
+     */
+    private double previousScreenX;
+    private double previousScreenY;
     /**
      * This {@code Rect} represents the area in which the player may be
      * before it causes the screen to scroll.
      */
     private Rect border;
 
+    /**
+     * The time that has passed but has not been simulated yet, which is
+     * always less than one step after an update.
+     */
+    private int accumulator;
+    /**
+     * Whether or not a simulation step is being run.
+     */
+    private boolean stepping;
+
     /**
      * The input provider for the game. This object handles all keyboard
      * input and mouse input.
@@ -112,9 +154,9 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
     private boolean[] scroll;
 
     /**
-     * The list of all the game objects.
+     * The registry of all the game objects.
      */
-    private List<Object> objects;
+    private ObjectRegistry registry;
     /**
      * The list of game objects that should be added at the start of the
      * next update cycle.
@@ -125,6 +167,11 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
      * next update cycle.
      */
     private List<Object> add;
+    /**
+     * The objects in the list of objects to add, for finding them in
+     * constant time.
+     */
+    private Set<Object> adding;
 
     /**
      * A reference for the current player that is in the game.
@@ -140,6 +187,110 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
      */
     private List<Boss> bosses;
 
+    /**
+     * The spatial index over the hitboxes of all the {@code Collideable}
+     * game objects. It is kept up to date as objects are added, removed and
+     * moved, and is shared by collisions, scanners and the subclasses.
+     */
+    private SpatialIndex<Collideable> index;
+    /**
+     * The spatial index over the static geometry of the level, which is
+     * every {@code Platform} that does not move. It is built once when the
+     * level is loaded.
+     */
+    private SpatialIndex<Collideable> statics;
+    /**
+     * The {@code Drawable} objects that will be drawn this frame, in
+     * order.
+     */
+    private Drawable[] drawList = new Drawable[0];
+    /**
+     * The frame of the visibility pass, and the last frame in which the
+     * object with each handle of the spatial index and of the static
+     * geometry was found on the screen.
+     */
+    private int frame;
+    private int[] seen = new int[0];
+    private int[] staticSeen = new int[0];
+    /**
+     * The camera position of the visibility pass.
+     */
+    private double cullX;
+    private double cullY;
+    /**
+     * The visitors that mark the objects found on the screen.
+     */
+    private final SpatialIndex.Visitor markSeen = h -> {
+        if (onScreen(index.get(h))) {
+            seen[h] = frame;
+        }
+    };
+    private final SpatialIndex.Visitor markStaticSeen = h -> {
+        if (onScreen(statics.get(h))) {
+            staticSeen[h] = frame;
+        }
+    };
+    /**
+     * The broad phase used to find the pairs of objects that may collide.
+     */
+    private BroadPhase broadPhase;
+    /**
+     * The objects that can collide during the current update. The array is
+     * kept between updates and only grows.
+     */
+    private Collideable[] cols;
+    /**
+     * The contacts between the objects that are touching, kept from one
+     * step to the next.
+     */
+    private ContactCache contacts;
+    /**
+     * The offscreen image of the static backgrounds.
+     */
+    private BackgroundCache backgrounds;
+    /**
+     * The narrow phase, which checks a candidate pair exactly and, if the
+     * two objects collide, notes their contact and tells both of them.
+     */
+    private final BroadPhase.PairHandler dispatch = (a, b) -> {
+        if (a.collidesWith(b)) {
+            contacts.touch(a, b);
+            a.collidedWith(b);
+            b.collidedWith(a);
+        }
+    };
+    /**
+     * The moving object whose hitbox is being checked against the static
+     * geometry.
+     */
+    private Collideable mover;
+    /**
+     * Check the moving object against a piece of static geometry found in
+     * its area.
+     */
+    private final SpatialIndex.Visitor staticDispatch = handle -> {
+        final Collideable s = statics.get(handle);
+        if (s.canCollide()) {
+            dispatch.handle(s, mover);
+        }
+    };
+
+    /**
+     * The pool on which the update phase is run in parallel mode, or null
+     * if it is run on the main thread.
+     */
+    private ForkJoinPool pool;
+    /**
+     * In parallel mode, the command buffer of each chunk of objects. The
+     * buffers are applied in the order of the chunks, so that the result
+     * does not depend on which thread finished first.
+     */
+    private CommandBuffer[] buffers;
+    /**
+     * The tasks of the current parallel phase.
+     */
+    private final List<ForkJoinTask<?>> tasks = new ArrayList<>(0);
+
     /**
      * The volume pitch.
      */
@@ -250,23 +401,29 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
         keyDown = new boolean[Keyboard.KEYBOARD_SIZE];
 
         scroll = new boolean[Direction.DIRECTIONS];
-        objects = new ArrayList<>(0);
+        registry = new ObjectRegistry();
         remove = new ArrayList<>(0);
         add = new ArrayList<>(0);
+        adding = Collections.newSetFromMap(new IdentityHashMap<>());
         bosses = new ArrayList<>(0);
 
+        index = new SpatialIndex<>();
+        statics = new SpatialIndex<>();
+        broadPhase = new IndexedBroadPhase(index);
+        cols = new Collideable[0];
+        contacts = new ContactCache();
+        backgrounds = new BackgroundCache();
+        buffers = new CommandBuffer[0];
+
         debugging = false;
     }
 
     /**
-     * Add and remove all objects if necessary and update the game if the
-     * minimum time resolution is met.Update all the game objects. Updating
-     * must occur in the following order: first, the standard update,
-     * during which time-dependent updates are made. This includes state
-     * changing, etc. Next, all collisions are calculated. This occurs
-     * after the standard update because that is when things will be moved.
-     * Then, game logic will be resolved, the most important of which is
-     * collisions.
+     * Advance the game by the time that has passed. The time is added to
+     * an accumulator and the game is simulated in as many steps of
+     * {@link #TIME_STEP} as fit, so the simulation does not depend on the
+     * frame rate. Whatever is left over is carried to the next frame and
+     * used to draw between steps.
      *
      * @param gc
      * @param master
@@ -275,46 +432,199 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
      */
     @Override
     public void update(GameContainer gc, StateBasedGame master, int dt) throws SlickException {
+        if (dt >= MAXIMUM_FRAME_TIME) {
+            dt = MAXIMUM_FRAME_TIME;
+        }
+        accumulator += dt;
+        AssetPreloader.get().poll();
+        while (accumulator >= TIME_STEP) {
+            accumulator -= TIME_STEP;
+            step(TIME_STEP);
+        }
+    }
+
+    /**
+     * Run one step in which no time passes, for a game that is paused but
+     * still shown. Nothing moves, but objects are still added and removed,
+     * check whether they are in bounds and are indexed, as in any step.
+     */
+    protected void stepPaused() {
+        step(0);
+    }
+
+    /**
+     * Add and remove all objects if necessary and run one simulation step
+     * of a fixed length. Updating must occur in the following order:
+     * first, the standard update, during which time-dependent updates are
+     * made. This includes state
+     * changing, etc. Next, all collisions are calculated. This occurs
+     * after the standard update because that is when things will be moved.
+     * The broad phase picks out the pairs of moving objects that may
+     * collide, and only those are checked exactly. Each moving object is
+     * then checked against the static geometry around it. The static
+     * geometry is never checked against itself. Every pair that collides
+     * is touched in the contact cache, and contacts that are not touched
+     * during the step end.
+     * Then, game logic will be resolved, the most important of which is
+     * collisions.
+     *
+     * @param dt
+     */
+    private void step(int dt) {
         exchangeObjects();
+        savePositions();
+        stepping = true;
 
-        if (dt >= MINIMUM_TIME_RESOLUTION) {
-            dt = MINIMUM_TIME_RESOLUTION;
+        final Updateable[] updateables = registry.updateables();
+        final int updateableCount = registry.updateableCount();
+        if (pool != null) {
+            runParallel(updateables, updateableCount, u -> u.update(dt));
+        } else {
+            for (int i = 0; i < updateableCount; i++) {
+                if (updateables[i] != null) {
+                    updateables[i].update(dt);
+                }
+            }
         }
 
-        for (final Object obj : objects) {
-            if (obj instanceof Updateable) {
-                ((Updateable) obj).update(dt);
+        // The index is only refreshed here, once per step, since this is
+        // where objects move. Queries made during the update see where
+        // objects were at the end of the last step, and the few objects
+        // that game logic moves are picked up in the next step. This also
+        // works out every hitbox on the main thread
+        refreshIndex();
+        final Collideable[] collideables = registry.collideables();
+        final int collideableCount = registry.collideableCount();
+        if (cols.length < collideableCount) {
+            cols = new Collideable[collideableCount];
+        }
+        int count = 0;
+        for (int i = 0; i < collideableCount; i++) {
+            if (collideables[i] != null && collideables[i].canCollide()) {
+                cols[count++] = collideables[i];
             }
         }
-        final List<Collideable> cols = new ArrayList<>(objects.size());
-        for (final Object o : objects) {
-            if (o instanceof Collideable) {
-                final Collideable c = (Collideable) o;
-                if (c.canCollide()) {
-                    cols.add(c);
-                }
+        contacts.beginStep();
+        broadPhase.findPairs(cols, count, dispatch);
+        for (int i = 0; i < count; i++) {
+            mover = cols[i];
+            final Rect box = mover.getHitbox();
+            statics.query(box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY(), staticDispatch);
+        }
+        mover = null;
+        contacts.endStep();
+        Arrays.fill(cols, 0, count, null);
+
+        // Game logic is where objects look at each other, through scans,
+        // contacts and the platforms around them, so it is always run on
+        // the main thread, even in parallel mode
+        final Logicable[] logicables = registry.logicables();
+        final int logicableCount = registry.logicableCount();
+        for (int i = 0; i < logicableCount; i++) {
+            if (logicables[i] != null) {
+                logicables[i].doLogic();
+            }
+        }
+
+        stepping = false;
+    }
+
+    /**
+     * Run an action on the first {@code count} objects of the array on the
+     * pool. The objects are split into contiguous chunks, and each chunk
+     * sends its changes to the game to its own command buffer. Once every
+     * chunk is done, the buffers are applied in order on this thread. While
+     * it waits, this thread does the work that the workers hand to it. The
+     * objects that must stay on the main thread are then run in order.
+     *
+     * @param <T>
+     * @param items
+     * @param count
+     * @param action
+     */
+    private <T> void runParallel(T[] items, int count, Consumer<? super T> action) {
+        final int chunks = Math.max(1, Math.min(count, pool.getParallelism() * CHUNKS_PER_WORKER));
+        if (buffers.length < chunks) {
+            final int old = buffers.length;
+            buffers = Arrays.copyOf(buffers, chunks);
+            for (int c = old; c < chunks; c++) {
+                buffers[c] = new CommandBuffer();
             }
         }
-        final Collideable[] c = cols.toArray(new Collideable[cols.size()]);
-        for (int n = 0; n < c.length; n++) {
-            for (int k = n + 1; k < c.length; k++) {
-                if (c[n].collidesWith(c[k])) {
-                    c[n].collidedWith(c[k]);
-                    c[k].collidedWith(c[n]);
+        for (int c = 0; c < chunks; c++) {
+            final int start = (int) ((long) count * c / chunks);
+            final int end = (int) ((long) count * (c + 1) / chunks);
+            final CommandBuffer buffer = buffers[c];
+            tasks.add(pool.submit(() -> {
+                CommandBuffer.setCurrent(buffer);
+                try {
+                    for (int i = start; i < end; i++) {
+                        if (items[i] != null && !isSerial(items[i])) {
+                            action.accept(items[i]);
+                        }
+                    }
+                } finally {
+                    CommandBuffer.setCurrent(null);
                 }
+            }));
+        }
+        for (final ForkJoinTask<?> task : tasks) {
+            CommandBuffer.join(task);
+            task.join();
+        }
+        tasks.clear();
+        for (int c = 0; c < chunks; c++) {
+            buffers[c].apply(this);
+        }
+        for (int i = 0; i < count; i++) {
+            if (isSerial(items[i])) {
+                action.accept(items[i]);
             }
         }
+    }
 
-        for (final Object obj : objects) {
-            if (obj instanceof Logicable) {
-                ((Logicable) obj).doLogic();
+    /**
+     * Whether or not an object must be run on the main thread in parallel
+     * mode. The player moves the camera, and an attack follows the
+     * position of its attacker, so they are run after everything else.
+     * Monsters look at the player and at the platforms around them while
+     * they update, so the player and the platforms that move are also kept
+     * still until every other object is done.
+     *
+     * @param o
+     * @return
+     */
+    private static boolean isSerial(Object o) {
+        return o instanceof Player || o instanceof Attack
+                || (o instanceof Platform && ((Platform) o).isMoving());
+    }
+
+    /**
+     * Remember the current position of the camera and of every
+     * {@code Interpolatable} object as their previous position.
+     */
+    private void savePositions() {
+        previousScreenX = screen.getX();
+        previousScreenY = screen.getY();
+        final Interpolatable[] interpolatables = registry.interpolatables();
+        final int interpolatableCount = registry.interpolatableCount();
+        for (int i = 0; i < interpolatableCount; i++) {
+            if (interpolatables[i] != null) {
+                interpolatables[i].savePosition();
             }
         }
-
     }
 
     /**
-     * Draw all game objects that can be drawn.
+     * Draw all game objects that can be drawn. The camera is applied as a
+     * translation, scaled by the parallax factor of each object. Since the
+     * game is simulated in fixed steps, the camera and every
+     * {@code Interpolatable} object are drawn between their previous and
+     * current positions, by how far the game is into the next step.
+     * Only the objects found by the visibility pass are drawn, in order of
+     * their z values.
+     * Unless the game is being debugged, the sprites are collected in the
+     * {@link SpriteBatch} and drawn at the end, by z value and texture.
      *
      * @param gc
      * @param master
@@ -323,12 +633,186 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
      */
     @Override
     public void render(GameContainer gc, StateBasedGame master, Graphics g) throws SlickException {
+        final double alpha = (double) accumulator / TIME_STEP;
+        final double cx = previousScreenX + (screen.getX() - previousScreenX) * alpha;
+        final double cy = previousScreenY + (screen.getY() - previousScreenY) * alpha;
+        final int drawableCount = findVisible(cx, cy);
+        final Drawable[] drawables = drawList;
+        // The static backgrounds are drawn from the cache when it can be
+        // used, which must happen before the screen clip is set, since
+        // setting it makes the screen the target of drawing again
+        int first = 0;
+        if (!debugging) {
+            final int end = BackgroundCache.staticRun(drawables, drawableCount);
+            if (backgrounds.prepare(drawables, end, cx, cy, (int) screen.getWidth(), (int) screen.getHeight())) {
+                first = end;
+            }
+        }
         g.setWorldClip(0.0f, 0.0f, (float) screen.getWidth(), (float) screen.getHeight());
-        for (final Object obj : objects) {
-            if (obj instanceof Drawable) {
-                ((Drawable) obj).draw(g);
+        double translateX = 0.0;
+        double translateY = 0.0;
+        final SpriteBatch batch = SpriteBatch.get();
+        final boolean batching = !debugging;
+        if (batching) {
+            batch.begin();
+        }
+        if (first > 0) {
+            final Image cache = backgrounds.getImage();
+            batch.setLayer(Drawable.BACKGROUND, 0.0, 0.0);
+            SpriteBatch.drawImage(cache, 0.0f, 0.0f, cache.getWidth(), cache.getHeight(), null);
+        }
+        for (int i = first; i < drawableCount; i++) {
+            final Drawable d = drawables[i];
+            if (d == null) {
+                continue;
+            }
+            double tx = -cx * d.getParallax();
+            double ty = -cy * d.getParallax();
+            if (d instanceof Interpolatable) {
+                final Interpolatable ip = (Interpolatable) d;
+                tx += (ip.getPreviousX() - ip.getX()) * (1.0 - alpha);
+                ty += (ip.getPreviousY() - ip.getY()) * (1.0 - alpha);
+            }
+            if (tx != translateX || ty != translateY) {
+                translateX = tx;
+                translateY = ty;
+                g.resetTransform();
+                g.translate((float) tx, (float) ty);
+            }
+            if (batching) {
+                batch.setLayer(d.getZ(), tx, ty);
+            }
+            batch.setTint(d instanceof Entity ? ((Entity) d).getTint() : null);
+            d.draw(g);
+        }
+        g.resetTransform();
+        if (batching) {
+            batch.end();
+        } else {
+            batch.setTint(null);
+        }
+        Arrays.fill(drawables, 0, drawableCount, null);
+    }
+
+    /**
+     * The largest margin used by {@link #cullMargin(int)}.
+     */
+    private static final double MAX_CULL_MARGIN = 256.0;
+
+    /**
+     * Get how far outside the screen the hitbox of a {@code Drawable} in
+     * the given layer may be while it is still drawn. Sprites are often
+     * larger than their hitboxes, especially for attacks, whose hitboxes
+     * can be a single point.
+     *
+     * @param z
+     * @return
+     */
+    private static double cullMargin(int z) {
+        switch (z) {
+            case Drawable.TILE:
+                return 32.0;
+            case Drawable.ITEM:
+                return 64.0;
+            case Drawable.ATTACK:
+                return MAX_CULL_MARGIN;
+            default:
+                return 128.0;
+        }
+    }
+
+    /**
+     * The visibility pass. Fill the draw list with the {@code Drawable}
+     * objects to draw this frame, layer by layer, in the order of the
+     * {@code RenderQueue}, which is the order in which they were added to
+     * the game. Objects that are not in the spatial index, such as
+     * backgrounds and the HUD, are always drawn. The others are found by
+     * querying the spatial indexes around the camera, which only marks
+     * the handles of the objects on the screen, and the tag of each
+     * object in the queue says which mark to look at. So the draw order
+     * never depends on the order in which the query finds them, and
+     * nothing is looked up or sorted.
+     *
+     * @param cx the horizontal position of the camera
+     * @param cy the vertical position of the camera
+     * @return the number of slots used in the draw list
+     */
+    private int findVisible(double cx, double cy) {
+        final double w = screen.getWidth();
+        final double h = screen.getHeight();
+        cullX = cx;
+        cullY = cy;
+        frame++;
+        if (seen.length < index.capacity()) {
+            seen = new int[Math.max(index.capacity(), seen.length * 2)];
+        }
+        if (staticSeen.length < statics.capacity()) {
+            staticSeen = new int[Math.max(statics.capacity(), staticSeen.length * 2)];
+        }
+        index.query(cx - MAX_CULL_MARGIN, cy - MAX_CULL_MARGIN, cx + w + MAX_CULL_MARGIN, cy + h + MAX_CULL_MARGIN, markSeen);
+        statics.query(cx - MAX_CULL_MARGIN, cy - MAX_CULL_MARGIN, cx + w + MAX_CULL_MARGIN, cy + h + MAX_CULL_MARGIN, markStaticSeen);
+
+        final RenderQueue queue = registry.drawables();
+        int count = 0;
+        for (int l = 0; l < RenderQueue.LAYERS; l++) {
+            final Drawable[] layer = queue.layer(l);
+            final int[] tags = queue.tags(l);
+            final int size = queue.layerSize(l);
+            if (drawList.length < count + size) {
+                drawList = Arrays.copyOf(drawList, Math.max(count + size, drawList.length * 2));
+            }
+            for (int i = 0; i < size; i++) {
+                if (layer[i] != null && isSeen(tags[i])) {
+                    drawList[count++] = layer[i];
+                }
             }
         }
+        return count;
+    }
+
+    /**
+     * Check whether the hitbox of an object found around the camera is
+     * close enough to the screen for the object to be drawn.
+     *
+     * @param c
+     * @return
+     */
+    private boolean onScreen(Collideable c) {
+        if (!(c instanceof Drawable)) {
+            return false;
+        }
+        final double m = cullMargin(((Drawable) c).getZ());
+        final Rect box = c.getHitbox();
+        return box.getMaxX() + m > cullX && box.getMinX() - m < cullX + screen.getWidth()
+                && box.getMaxY() + m > cullY && box.getMinY() - m < cullY + screen.getHeight();
+    }
+
+    /**
+     * Get the tag in the {@code RenderQueue} of an object with a handle
+     * in one of the spatial indexes.
+     *
+     * @param handle
+     * @param isStatic whether the handle is of the static geometry
+     * @return
+     */
+    private static int tagOf(int handle, boolean isStatic) {
+        return isStatic ? RenderQueue.HIDDEN - 1 - handle : handle;
+    }
+
+    /**
+     * Check whether the object with the given tag in the
+     * {@code RenderQueue} is drawn in this frame.
+     *
+     * @param tag
+     * @return
+     */
+    private boolean isSeen(int tag) {
+        if (tag >= 0) {
+            return seen[tag] == frame;
+        } else if (tag < RenderQueue.HIDDEN) {
+            return staticSeen[RenderQueue.HIDDEN - 1 - tag] == frame;
+        }
+        return tag == RenderQueue.ALWAYS;
     }
 
     /**
@@ -401,12 +885,87 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
      * Add and remove all objects.
      */
     protected void exchangeObjects() {
-        objects.addAll(add);
-        objects.removeAll(remove);
+        for (final Object o : add) {
+            registry.add(o);
+            addToIndex(o);
+        }
+        for (final Object o : remove) {
+            registry.remove(o);
+            if (o instanceof Collideable) {
+                index.remove((Collideable) o);
+                statics.remove((Collideable) o);
+                contacts.forget((Collideable) o);
+            }
+        }
         add.clear();
+        adding.clear();
         remove.clear();
     }
 
+    /**
+     * Move every {@code Collideable} in the spatial index to its current
+     * hitbox.
+     */
+    protected void refreshIndex() {
+        final Collideable[] collideables = registry.collideables();
+        final int collideableCount = registry.collideableCount();
+        for (int i = 0; i < collideableCount; i++) {
+            if (collideables[i] != null) {
+                index.insert(collideables[i], collideables[i].getHitbox());
+            }
+        }
+    }
+
+    /**
+     * Clear the spatial index and insert every {@code Collideable} game
+     * object into it.
+     */
+    protected void rebuildIndex() {
+        index.clear();
+        statics.clear();
+        contacts.clear();
+        for (final Object o : registry.getObjects()) {
+            addToIndex(o);
+        }
+    }
+
+    /**
+     * Insert an object into the right spatial index, if it is
+     * {@code Collideable}.
+     *
+     * @param o
+     */
+    private void addToIndex(Object o) {
+        if (o instanceof Collideable) {
+            final Collideable c = (Collideable) o;
+            final Rect box = c.getHitbox();
+            final int tag;
+            if (ObjectRegistry.isStatic(o)) {
+                tag = tagOf(statics.insert(c, box), true);
+            } else {
+                tag = tagOf(index.insert(c, box), false);
+            }
+            if (o instanceof Drawable) {
+                registry.drawables().setTag((Drawable) o, tag);
+            }
+        }
+    }
+
+    /**
+     * Add every {@code Collideable} game object whose hitbox overlaps the
+     * given area to the list, from both the moving objects and the static
+     * geometry.
+     *
+     * @param area
+     * @param out
+     * @return the list
+     */
+    protected List<? super Collideable> query(Rect area, List<? super Collideable> out) {
+        index.query(area, out);
+        statics.query(area, out);
+        return out;
+    }
+
     /**
      * Load the next level.
      *
@@ -416,9 +975,19 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
         // Create the heads up display
         headsUpDisplay = new HUD(this);
 
-        // Load all the game objects
+        // Load all the game objects, while the assets that the level may
+        // need later are loaded in the background
         final Parser parser = Parser.get();
         final String levelRef = worlds[world][level];
+        AssetPreloader.get().start(levelRef, playerType);
+        if (!levelRef.equals(loadedLevel)) {
+            // The tiles and backgrounds baked for the last level are not
+            // needed any more, but a level that is restarted keeps them
+            Tessel.clearBlocks();
+            BackgroundLayer.clearStrips();
+            loadedLevel = levelRef;
+        }
+        final List<Object> objects;
         try {
             objects = parser.loadLevel(this, levelRef);
         } catch (final SlickException ex) {
@@ -444,6 +1013,7 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
             final double bh = screen.getHeight() - 2 * border.getY();
             border.setRect(border.getX(), border.getY(), bw, bh);
             scroll = levelConfig.canScroll();
+            setParallel(levelConfig.isParallel());
         } else {
             fail(new SlickException("LevelConfiguration object not specified in level: " + levelRef));
         }
@@ -459,93 +1029,126 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
             fail(new SlickException("Level must have only one Player Entity: " + levelRef));
         }
 
-        // Sort all the game objects according to the draw order
-        final int size = objects.size();
-        final List<Background> backgrounds = new ArrayList<>(size);
-        final List<Background> foregrounds = new ArrayList<>(size);
-        final List<Platform> tiles = new ArrayList<>(size);
-        final List<Monster> monsters = new ArrayList<>(size);
-        final List<Item> items = new ArrayList<>(size);
-        final List<Object> otherObjects = new ArrayList<>(size);
+        // Find the player and the bosses. The draw order is kept by the
+        // render queue, so the objects stay in the order of the level file
         player = null;
-        for (final Object obj : objects) {
-            if (obj instanceof Background) {
-                Background bck = (Background) obj;
-                if (bck.isForeground()) {
-                    foregrounds.add(bck);
-                } else {
-                    backgrounds.add(bck);
-                }
-            } else if (obj instanceof Platform) {
-                tiles.add((Platform) obj);
-            } else if (obj instanceof Monster) {
-                monsters.add((Monster) obj);
-            } else if (obj instanceof Player) {
+        int playerIndex = -1;
+        for (int i = 0; i < objects.size(); i++) {
+            final Object obj = objects.get(i);
+            if (obj instanceof Player) {
                 player = (Player) obj;
-            } else if (obj instanceof Item) {
-                items.add((Item) obj);
-            } else {
-                otherObjects.add(obj);
+                playerIndex = i;
             }
             if (obj instanceof Boss) {
                 bosses.add((Boss) obj);
             }
         }
-        objects.clear();
-        objects.addAll(backgrounds);
-        objects.addAll(otherObjects);
-        objects.addAll(tiles);
-        objects.addAll(monsters);
-        objects.addAll(items);
 
         // Instantiate the player
-        final Package[] packages = Package.getPackages();
-        Class<?> playerClass = null;
-        Constructor<?> playerConstructor = null;
-        for (final Package p : packages) {
-            final String tentative = p.getName() + "." + playerType.toString();
-            try {
-                playerClass = Class.forName(tentative);
-                playerConstructor = playerClass.getConstructor(Player.class);
-            } catch (final ClassNotFoundException | NoSuchMethodException | SecurityException ex) {
-                continue;
-            }
-            break;
-        }
-        if (playerClass != null && playerConstructor != null) {
+        final ElementRegistry.Element playerElement = ElementRegistry.get().find(playerType.toString());
+        if (playerElement != null && playerElement.is(Player.class) && playerElement.canCreate(Player.class)) {
             try {
-                player = (Player) playerConstructor.newInstance(player);
-            } catch (final InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
+                player = (Player) playerElement.create(Player.class, player);
+            } catch (final NoSuchMethodException | InvocationTargetException ex) {
                 fail("Could not instantiate the Player", ex);
             }
         } else {
             fail("Player class type does not exist: " + playerType.toString());
         }
 
-        // Finally, add the player, the foregrounds, and the HUD
-        objects.add(player);
-        objects.addAll(foregrounds);
+        // Finally, put in the player and add the HUD
+        objects.set(playerIndex, player);
         objects.add(headsUpDisplay);
+        registry = new ObjectRegistry(objects);
+        rebuildIndex();
+        savePositions();
     }
 
     @Override
     public List<Object> getObjects() {
-        return Collections.unmodifiableList(objects);
+        return registry.getObjects();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return registry.contains(o);
+    }
+
+    @Override
+    public Direction getCollideDir(Collideable c, Collideable other) {
+        final ContactCache.Contact contact = contacts.get(c, other);
+        if (contact != null) {
+            return contact.getCollideDir(c);
+        }
+        return c.getCollideDir(other);
+    }
+
+    /**
+     * Put the game objects whose hitboxes overlap the given area into the
+     * list, found through the spatial index. Objects that are not
+     * {@code Collideable} are never included.
+     *
+     * @param area
+     * @param out
+     * @return
+     */
+    @Override
+    public List<Object> getObjects(Rect area, List<Object> out) {
+        out.clear();
+        query(area, out);
+        return out;
+    }
+
+    /**
+     * Get the spatial index over the {@code Collideable} game objects that
+     * are not part of the static geometry.
+     *
+     * @return
+     */
+    protected SpatialIndex<Collideable> getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the spatial index over the static geometry.
+     *
+     * @return
+     */
+    protected SpatialIndex<Collideable> getStatics() {
+        return statics;
     }
 
     @Override
     public void add(Object o) {
-        add.add(o);
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            buffer.add(o);
+        } else if (adding.add(o)) {
+            add.add(o);
+        }
     }
 
     @Override
     public void remove(Object o) {
-        remove.add(o);
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            buffer.remove(o);
+        } else {
+            remove.add(o);
+        }
     }
 
     @Override
     public boolean objectAddQueued(Object o) {
-        return add.contains(o);
+        if (adding.contains(o)) {
+            return true;
+        }
+        for (final CommandBuffer buffer : buffers) {
+            if (buffer.addQueued(o)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -568,44 +1171,60 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
         return player;
     }
 
+    /**
+     * Move the camera horizontally, if the level allows scrolling in that
+     * direction. The camera never goes past the left edge of the world. If
+     * the camera is moved outside of a simulation step, the move is shown
+     * at once rather than being drawn over the next step.
+     *
+     * @param xScroll
+     */
     @Override
     public void xScroll(double xScroll) {
         if (xScroll != 0) {
             if (scroll[Direction.xDirOf(xScroll).index()]) {
-                screen.setRect(screen.getX() + xScroll, screen.getY(), screen.getWidth(), screen.getHeight());
-                for (Object obj : objects) {
-                    if (obj instanceof Cartesian) {
-                        Cartesian ent = (Cartesian) obj;
-                        ent.moveX(-xScroll);
-                    }
-                }
-                if (screen.getX() < 0) {
-                    xScroll(-screen.getX());
+                final double x = Math.max(0.0, screen.getX() + xScroll);
+                if (!stepping) {
+                    previousScreenX += x - screen.getX();
                 }
+                screen.setRect(x, screen.getY(), screen.getWidth(), screen.getHeight());
             }
         }
     }
 
+    /**
+     * Move the camera vertically, if the level allows scrolling in that
+     * direction. The camera never goes past the top edge of the world.
+     *
+     * @see #xScroll(double)
+     *
+     * @param yScroll
+     */
     @Override
     public void yScroll(double yScroll) {
         if (yScroll != 0) {
             if (scroll[Direction.yDirOf(yScroll).index()]) {
-                screen.setRect(screen.getX(), screen.getY() + yScroll, screen.getWidth(), screen.getHeight());
-                for (Object obj : objects) {
-                    if (obj instanceof Cartesian) {
-                        Cartesian ent = (Cartesian) obj;
-                        ent.moveY(-yScroll);
-                    }
-                }
-                if (screen.getY() < 0) {
-                    yScroll(-screen.getY());
+                final double y = Math.max(0.0, screen.getY() + yScroll);
+                if (!stepping) {
+                    previousScreenY += y - screen.getY();
                 }
+                screen.setRect(screen.getX(), y, screen.getWidth(), screen.getHeight());
             }
         }
     }
 
+    /**
+     * Restart the level. If this is called from a worker thread in
+     * parallel mode, the level is restarted on the main thread once the
+     * current phase is done.
+     */
     @Override
     public void playerDead() {
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            buffer.post(this::playerDead);
+            return;
+        }
         try {
             nextLevel();
         } catch (SlickException ex) {
@@ -616,10 +1235,16 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
     /**
      * If all the levels in the world are completed, reset the level
      * counter and move to the next world. If all worlds are completed,
-     * return to the title screen.
+     * return to the title screen. Like {@link #playerDead()}, this is
+     * done on the main thread.
      */
     @Override
     public void levelCompleted() {
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            buffer.post(this::levelCompleted);
+            return;
+        }
         boolean next = true;
         level++;
         try {
@@ -652,13 +1277,40 @@ public class GameImpl extends BasicGameState implements Game, InputProviderListe
         return provider;
     }
 
+    /**
+     * Set the broad phase that is used to find candidate collisions.
+     *
+     * @param broadPhase
+     */
+    public void setBroadPhase(BroadPhase broadPhase) {
+        this.broadPhase = broadPhase;
+    }
+
+    /**
+     * Set whether the update phase is run in parallel. In parallel mode,
+     * the objects are split across the common fork-join pool, except for
+     * the ones that must stay on the main thread. Objects only change
+     * themselves directly; adding and removing objects, playing sounds, and
+     * restarting or completing the level, go through a command buffer for
+     * each chunk and are applied at the end of the phase. Textures and
+     * sound buffers can only be made on the main thread, so an object that
+     * is created on a worker has them made by the main thread while the
+     * worker waits. Game logic is always run on the main thread.
+     *
+     * @param parallel
+     */
+    public void setParallel(boolean parallel) {
+        pool = parallel ? ForkJoinPool.commonPool() : null;
+    }
+
     public void setScroll(boolean[] scroll) {
         this.scroll = arraycopy(scroll);
     }
 
-    @SuppressWarnings("AssignmentToCollectionOrArrayFieldFromParameter")
     public void setObjects(List<Object> objects) {
-        this.objects = objects;
+        registry = new ObjectRegistry(objects);
+        rebuildIndex();
+        savePositions();
     }
 
     @Override
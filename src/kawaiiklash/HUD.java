@@ -44,7 +44,7 @@ public class HUD implements Updateable, Drawable {
      *
      * @param element
      */
-    public void addElement(HUDAbstractElement element) {
+    public synchronized void addElement(HUDAbstractElement element) {
         add.add(element);
     }
 
@@ -53,7 +53,7 @@ public class HUD implements Updateable, Drawable {
      *
      * @param element
      */
-    public void removeElement(HUDAbstractElement element) {
+    public synchronized void removeElement(HUDAbstractElement element) {
         remove.add(element);
     }
 
@@ -64,10 +64,12 @@ public class HUD implements Updateable, Drawable {
      */
     @Override
     public void update(int dt) {
-        elements.addAll(add);
-        elements.removeAll(remove);
-        add.clear();
-        remove.clear();
+        synchronized (this) {
+            elements.addAll(add);
+            elements.removeAll(remove);
+            add.clear();
+            remove.clear();
+        }
         for (HUDAbstractElement element : elements) {
             element.update(dt);
         }
@@ -89,5 +91,15 @@ public class HUD implements Updateable, Drawable {
     public int getZ() {
         return Drawable.HUD;
     }
+
+    /**
+     * The heads up display does not move with the camera.
+     *
+     * @return
+     */
+    @Override
+    public double getParallax() {
+        return 0.0;
+    }
     
 }
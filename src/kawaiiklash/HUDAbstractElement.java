@@ -59,5 +59,10 @@ public abstract class HUDAbstractElement extends Reactor implements Drawable {
     public int getZ() {
         return Drawable.HUD;
     }
+
+    @Override
+    public double getParallax() {
+        return 0.0;
+    }
     
 }
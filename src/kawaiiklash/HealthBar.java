@@ -86,41 +86,56 @@ public class HealthBar extends HUDAbstractElement {
      */
     @Override
     public void draw(Graphics g) {
+        final float x = (float) getX();
+        final float y = (float) getY();
         final SpriteSheet part = sprites.get(GAUGE);
-        final Sprite pStart = part.get(0);
-        final Sprite pMid = part.get(1);
-        final Sprite pEnd = part.get(2);
-        for (int i = 0; i < length; i++) {
-            final float x = (float) getX() + i;
-            final float y = (float) getY();
-            if (i == 0) {
-                pStart.draw(x + part.getOffsetX(0), y + part.getOffsetY(0));
-            } else if (i == length - 1) {
-                pEnd.draw(x + part.getOffsetX(2), y + part.getOffsetY(2));
-            } else {
-                pMid.draw(x + part.getOffsetX(1), y + part.getOffsetY(1));
-            }
-        }
+        drawBar(part, x, y, length,
+                part.getOffsetX(0), part.getOffsetY(0),
+                part.getOffsetX(1), part.getOffsetY(1),
+                part.getOffsetX(2), part.getOffsetY(2));
         final SpriteSheet fill = sprites.get(FILL);
-        final Sprite fStart = fill.get(0);
-        final Sprite fMid = fill.get(1);
-        final Sprite fEnd = fill.get(2);
         final double ratio = health / maxHealth;
         final int dLength = (int) (ratio * length);
-        for (int i = 0; i < dLength; i++) {
-            final float x = (float) getX() + fill.getOffsetX() + i;
-            final float y = (float) getY() + fill.getOffsetY();
-            if (i == 0) {
-                fStart.draw(x, y);
-            } else if (i == dLength - 1) {
-                fEnd.draw(x, y);
-            } else {
-                fMid.draw(x, y);
-            }
-        }
+        final int fx = fill.getOffsetX();
+        final int fy = fill.getOffsetY();
+        drawBar(fill, x, y, dLength, fx, fy, fx, fy, fx, fy);
         indicator.draw(g);
     }
 
+    /**
+     * Draw a bar that is a number of pixels long out of the first three
+     * sprites of a sheet: the start, the middle and the end. The start is
+     * drawn at the first pixel and the end at the last, and the middle is
+     * stretched over the pixels in between, so the bar takes at most
+     * three draws.
+     *
+     * @param sheet
+     * @param x
+     * @param y
+     * @param length
+     * @param sx the offset of the start
+     * @param sy
+     * @param mx the offset of the middle
+     * @param my
+     * @param ex the offset of the end
+     * @param ey
+     */
+    private static void drawBar(SpriteSheet sheet, float x, float y, int length,
+            int sx, int sy, int mx, int my, int ex, int ey) {
+        if (length <= 0) {
+            return;
+        }
+        sheet.get(0).draw(x + sx, y + sy);
+        if (length > 2) {
+            // The middle covers the pixels from 1 to length - 2
+            final Sprite mid = sheet.get(1);
+            mid.draw(x + 1 + mx, y + my, length - 3 + mid.getWidth(), mid.getHeight());
+        }
+        if (length > 1) {
+            sheet.get(2).draw(x + length - 1 + ex, y + ey);
+        }
+    }
+
     /**
      * The health bar indicator is class that represents the player's
      * health as a number. Rather than simply drawing the health with one
@@ -131,43 +146,42 @@ public class HealthBar extends HUDAbstractElement {
         private final SpriteSheet sprite;
         private final List<Sprite> number;
 
+        /**
+         * The health that the digits show, or -1 if there are none yet.
+         */
+        private int shown;
+
         {
             sprite = SpriteLoader.get().loadSprites(Bank.getSpriteRef(this)).get(0);
         }
 
         private HealthBarIndicator() {
             super(HealthBar.this.getGame());
-            number = new ArrayList<>(0);
+            number = new ArrayList<>(4);
+            shown = -1;
         }
 
         /**
          * Since the frame number of each number in the indicator sprite
-         * sheet is the same as the number it represents, convert a number
-         * into a integer array.
-         *
-         * @param number
-         * @return
-         */
-        private int[] toIntArray(int number) {
-            char[] chars = String.valueOf(number).toCharArray();
-            int[] a = new int[chars.length];
-            for (int i = 0; i < chars.length; i++) {
-                a[i] = Integer.parseInt(String.valueOf(chars[i]));
-            }
-            return a;
-        }
-
-        /**
-         * Add a sprite that represents each digit of the health.
+         * sheet is the same as the number it represents, set the digit
+         * sprites to the digits of the health. This is only done when the
+         * health that is shown changes.
          *
          * @param dt
          */
         @Override
         public void update(int dt) {
-            int[] nums = toIntArray((int) health);
-            for (int num : nums) {
-                number.add(sprite.get(num));
+            final int value = (int) health;
+            if (value == shown) {
+                return;
             }
+            shown = value;
+            number.clear();
+            int rest = value;
+            do {
+                number.add(0, sprite.get(rest % 10));
+                rest /= 10;
+            } while (rest > 0);
         }
 
         /**
@@ -184,7 +198,6 @@ public class HealthBar extends HUDAbstractElement {
                 s.draw(x, y);
                 x += s.getWidth();
             }
-            number.clear();
         }
 
     }
@@ -0,0 +1,178 @@
+package kawaiiklash;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * A {@code Hitbox} is the {@code Rect} that an object keeps for its own
+ * hitbox and hands out from {@code getHitbox()}. Hitboxes are asked for
+ * many times each step, during collisions, scans and game logic, so
+ * instead of creating a new {@code Rect} every time, the object works its
+ * hitbox out into the same {@code Hitbox}, and only when something it
+ * depends on has changed.
+ * <p>
+ * The {@code Hitbox} remembers the position, state, frame and direction
+ * it was worked out for. The owner passes the current values to
+ * {@link #isStale} and works the hitbox out again if they differ, or if it
+ * has called {@link #invalidate()}, then passes the same values to
+ * {@link #validate}.
+ * <p>
+ * In parallel mode, several objects may ask for the same hitbox at once,
+ * so the owner checks and works out its hitbox while holding the lock of
+ * the {@code Hitbox}. The hitboxes of all the objects in the spatial index
+ * are worked out on the main thread once each step, when the index is
+ * refreshed, and objects that others look at while they update are not
+ * updated on the workers, so a hitbox is never changed while another
+ * thread reads it.
+ * <p>
+ * A {@code Hitbox} is read only to everyone but its owner. Calling any of
+ * the methods that change a {@code Rect} throws an exception, so a hitbox
+ * that is needed for longer than the current step should be copied with
+ * {@link #clone()}.
+ *
+ * @author Jeff Niu
+ */
+@SuppressWarnings("serial")
+public class Hitbox extends Rect {
+
+    /**
+     * The values that the hitbox was last worked out for.
+     */
+    private double keyX;
+    private double keyY;
+    private int keyState;
+    private int keyFrame;
+    private Direction keyDir;
+
+    /**
+     * Whether the hitbox must be worked out again, whatever the values.
+     */
+    private boolean invalid;
+
+    /**
+     * Whether the {@code Hitbox} has been constructed. The constructor of
+     * {@code Rectangle2D.Double} sets the bounds, which must be let
+     * through.
+     */
+    private final boolean sealed;
+
+    /**
+     * Create an empty {@code Hitbox}, which must be worked out before it
+     * is first used.
+     */
+    public Hitbox() {
+        invalid = true;
+        sealed = true;
+    }
+
+    /**
+     * Check whether the hitbox must be worked out again for the given
+     * values.
+     *
+     * @param x the position of the owner
+     * @param y
+     * @param state the state of the owner
+     * @param frame the animation frame of the owner
+     * @param dir the horizontal direction of the owner
+     * @return true if the hitbox is out of date
+     */
+    public boolean isStale(double x, double y, int state, int frame, Direction dir) {
+        return invalid || x != keyX || y != keyY || state != keyState
+                || frame != keyFrame || dir != keyDir;
+    }
+
+    /**
+     * Remember the values that the hitbox has just been worked out for.
+     * The owner calls this after it has called {@link #set}.
+     *
+     * @param x the position of the owner
+     * @param y
+     * @param state the state of the owner
+     * @param frame the animation frame of the owner
+     * @param dir the horizontal direction of the owner
+     */
+    public void validate(double x, double y, int state, int frame, Direction dir) {
+        keyX = x;
+        keyY = y;
+        keyState = state;
+        keyFrame = frame;
+        keyDir = dir;
+        invalid = false;
+    }
+
+    /**
+     * Make the hitbox be worked out again the next time it is asked for.
+     * The owner calls this when something the hitbox depends on changes
+     * that is not passed to {@link #isStale}.
+     */
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Set the hitbox. Only the owner may call this.
+     *
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     */
+    public void set(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Hitboxes are read only");
+    }
+
+    @Override
+    public void setX(double x) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setY(double y) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setWidth(double width) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setHeight(double height) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setPosition(Vector v) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setSize(Dimensions d) {
+        throw readOnly();
+    }
+
+    @Override
+    public Rect translate(double dx, double dy) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setRect(double x, double y, double w, double h) {
+        if (sealed) {
+            throw readOnly();
+        }
+        super.setRect(x, y, w, h);
+    }
+
+    @Override
+    public void setRect(Rectangle2D r) {
+        throw readOnly();
+    }
+
+}
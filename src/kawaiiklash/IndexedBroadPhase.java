@@ -0,0 +1,95 @@
+package kawaiiklash;
+
+import java.util.Arrays;
+
+/**
+ * A {@code BroadPhase} that finds candidate pairs by querying a
+ * {@code SpatialIndex} around each object. The index must hold every
+ * object that is given, with boxes that are up to date, which is the case
+ * for the index owned by the game.
+ *
+ * @author Jeff Niu
+ */
+public class IndexedBroadPhase implements BroadPhase, SpatialIndex.Visitor {
+
+    /**
+     * The spatial index that is queried.
+     */
+    private final SpatialIndex<Collideable> index;
+
+    /**
+     * For each handle in the index, one more than the position of its
+     * object in the array being searched, or zero if it is not there.
+     */
+    private int[] slots;
+    /**
+     * The handle of each object in the array being searched.
+     */
+    private int[] handles;
+
+    /**
+     * The state of the search, used when visiting the query results.
+     */
+    private Collideable[] cols;
+    private int current;
+    private PairHandler handler;
+
+    /**
+     * Create a {@code IndexedBroadPhase} over the given index.
+     *
+     * @param index
+     */
+    public IndexedBroadPhase(SpatialIndex<Collideable> index) {
+        this.index = index;
+        slots = new int[0];
+        handles = new int[0];
+    }
+
+    @Override
+    public void findPairs(Collideable[] cols, int count, PairHandler handler) {
+        if (slots.length < index.capacity()) {
+            slots = Arrays.copyOf(slots, Math.max(index.capacity(), slots.length * 2));
+        }
+        if (handles.length < count) {
+            handles = new int[Math.max(count, handles.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            final int h = index.handleOf(cols[i]);
+            handles[i] = h;
+            if (h >= 0) {
+                slots[h] = i + 1;
+            }
+        }
+        this.cols = cols;
+        this.handler = handler;
+        for (int i = 0; i < count; i++) {
+            if (handles[i] >= 0) {
+                current = i;
+                index.queryAround(handles[i], this);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (handles[i] >= 0) {
+                slots[handles[i]] = 0;
+            }
+        }
+        this.cols = null;
+        this.handler = null;
+    }
+
+    /**
+     * Hand over the pair made by the current object and the found object
+     * if the found object can collide and comes after the current one, so
+     * that every pair is handed over once.
+     *
+     * @param handle
+     */
+    @Override
+    public void visit(int handle) {
+        final int other = slots[handle] - 1;
+        if (other > current) {
+            handler.handle(cols[current], cols[other]);
+        }
+    }
+
+}
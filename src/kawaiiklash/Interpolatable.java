@@ -0,0 +1,36 @@
+package kawaiiklash;
+
+/**
+ * An {@code Interpolatable} is a {@code Cartesian} object that remembers
+ * where it was at the start of the current simulation step. The game runs
+ * its simulation in fixed steps, which rarely line up with the frames, so
+ * an {@code Interpolatable} is drawn between its previous position and its
+ * current position, according to how far the game is into the next step.
+ * This keeps the movement smooth at any frame rate.
+ *
+ * @author Jeff Niu
+ */
+public interface Interpolatable extends Cartesian {
+
+    /**
+     * Remember the current position as the previous position. This is
+     * called by the game at the start of every simulation step.
+     */
+    void savePosition();
+
+    /**
+     * Get the horizontal position at the start of the last simulation
+     * step.
+     *
+     * @return
+     */
+    double getPreviousX();
+
+    /**
+     * Get the vertical position at the start of the last simulation step.
+     *
+     * @return
+     */
+    double getPreviousY();
+
+}
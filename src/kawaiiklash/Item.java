@@ -57,11 +57,11 @@ public abstract class Item extends Entity {
     }
 
     @Override
-    public Rect getHitbox() {
+    protected void updateHitbox(Hitbox box) {
         final SpriteSheet ss = getSprites().get(getState());
         final double x = getX() + ss.getOffsetX();
         final double y = getY() + ss.getOffsetY();
-        return new Rect(x, y, ss.getWidth(), ss.getHeight());
+        box.set(x, y, ss.getWidth(), ss.getHeight());
     }
 
     /**
@@ -81,7 +81,7 @@ public abstract class Item extends Entity {
         setDdy(1000);
         Image img = getSprites().get(getState()).get(0).getImage();
         img.setRotation(0);
-        Effects.fade(Effects.Fade.OUT, getGame(), getSprites(), 500);
+        Effects.fade(Effects.Fade.OUT, getGame(), this, 500);
         Game game = getGame();
         SOUNDS.get(1).playEffect(game.getPitch(), game.getGain(), false);
     }
@@ -164,7 +164,7 @@ public abstract class Item extends Entity {
             pickedUp();
         }
         if (other instanceof Platform && mode == DROP) {
-            Direction d = getCollideDir(other);
+            Direction d = getGame().getCollideDir(this, other);
             if (d == Direction.UP && getHitbox().y < other.getHitbox().y) {
                 hitGround(other.getHitbox());
             }
@@ -110,7 +110,7 @@ public abstract class Jumper extends Monster {
     public void doLogic() {
         for (Platform platform : platforms) {
             Rect tile = platform.getHitbox();
-            Direction dir = getCollideDir(tile);
+            Direction dir = getGame().getCollideDir(this, platform);
             Double x = null;
             Double y = null;
             Rect b = getHitbox();
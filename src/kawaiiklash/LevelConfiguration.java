@@ -19,6 +19,9 @@ public class LevelConfiguration {
     // Whether the screen can canScroll in a certain direction
     private final boolean[] scroll = new boolean[Direction.DIRECTIONS];
 
+    // Whether the game objects are updated on several threads
+    private boolean parallel;
+
     /**
      * Create a level
      *
@@ -81,6 +84,20 @@ public class LevelConfiguration {
         y = Double.parseDouble(coord);
     }
 
+    /**
+     * Set whether the game objects of the level are updated in parallel.
+     * Meant for large levels with many spawners.
+     *
+     * @param parallel
+     */
+    public void parallel(String parallel) {
+        this.parallel = Boolean.parseBoolean(parallel);
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
     public Rect getScreen() {
         return new Rect(new Vector(x, y));
     }
@@ -0,0 +1,168 @@
+package kawaiiklash;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import static kawaiiklash.Utility.fail;
+
+/**
+ * The {@code ManifestCompiler} is a build step, separate from the game,
+ * that compiles every sprite {@code data.xml} into one binary file, the
+ * {@link SpriteManifest}. Reading the {@code data.xml} files means parsing
+ * XML and looking up a method for every attribute, for every sprite sheet
+ * that is loaded, while the manifest is read once and then only indexed.
+ * <p>
+ * The manifest starts with {@link SpriteManifest#MAGIC},
+ * {@link SpriteManifest#VERSION} and the number of data files. Then, for
+ * each data file, it has the reference of the file and the number of
+ * frames, and for each frame, the image, the sheet name, the delay and
+ * the x and y offsets. Strings are written as their length, as an
+ * unsigned short, followed by their bytes in UTF-8.
+ * <p>
+ * The compiler is run with {@code gradle compileManifest}, or with the
+ * resources folder as its only argument. Gradle runs it before the
+ * resources are copied, whenever a {@code data.xml} has changed.
+ *
+ * @author Jeff Niu
+ */
+public class ManifestCompiler {
+
+    public static void main(String[] args) {
+        final File root = new File(args.length > 0 ? args[0] : "src/resources");
+        final File sprites = new File(root, "sprites");
+        if (!sprites.isDirectory()) {
+            fail("Could not find the sprites folder: " + sprites);
+        }
+        final Map<String, List<SpriteConfiguration>> files = new LinkedHashMap<>();
+        findDataFiles(root, sprites, files);
+        final File out = new File(root, SpriteManifest.FILE);
+        writeManifest(out, files);
+        int frames = 0;
+        for (List<SpriteConfiguration> configs : files.values()) {
+            frames += configs.size();
+        }
+        System.out.println(String.format("Compiled %d data files with %d frames into %s", files.size(), frames, out));
+    }
+
+    /**
+     * Find and read every {@code data.xml} in a folder and its subfolders.
+     *
+     * @param root the resources folder
+     * @param dir
+     * @param files the entries of each file, by its reference
+     */
+    private static void findDataFiles(File root, File dir, Map<String, List<SpriteConfiguration>> files) {
+        final File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File file : children) {
+            if (file.isDirectory()) {
+                findDataFiles(root, file, files);
+            } else if (file.getName().equals("data.xml")) {
+                final String ref = root.toURI().relativize(file.toURI()).getPath();
+                files.put(ref, readDataFile(file));
+            }
+        }
+    }
+
+    /**
+     * Read the entries of a {@code data.xml} file, the same way that the
+     * {@link Parser} does. Every element under the root is an entry.
+     *
+     * @param file
+     * @return
+     */
+    private static List<SpriteConfiguration> readDataFile(File file) {
+        final List<SpriteConfiguration> configs = new ArrayList<>();
+        try (InputStream in = new FileInputStream(file)) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            int depth = 0;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamReader.END_ELEMENT) {
+                    depth--;
+                }
+                if (event != XMLStreamReader.START_ELEMENT) {
+                    continue;
+                }
+                if (++depth != 2) {
+                    continue;
+                }
+                final SpriteConfiguration config = new SpriteConfiguration();
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    final String value = reader.getAttributeValue(i);
+                    switch (reader.getAttributeLocalName(i)) {
+                        case "image":
+                            config.image(value);
+                            break;
+                        case "delay":
+                            config.delay(value);
+                            break;
+                        case "x":
+                            config.x(value);
+                            break;
+                        case "y":
+                            config.y(value);
+                            break;
+                        default:
+                            fail(String.format("Unknown attribute %s in %s", reader.getAttributeLocalName(i), file));
+                    }
+                }
+                if (config.getRef() == null) {
+                    fail("Sprite entry without an image in " + file);
+                }
+                configs.add(config);
+            }
+            reader.close();
+        } catch (IOException | XMLStreamException | NumberFormatException ex) {
+            fail("Could not read the sprite data file: " + file, ex);
+        }
+        return configs;
+    }
+
+    private static void writeManifest(File file, Map<String, List<SpriteConfiguration>> files) {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(SpriteManifest.MAGIC);
+            out.writeInt(SpriteManifest.VERSION);
+            out.writeInt(files.size());
+            for (Map.Entry<String, List<SpriteConfiguration>> entry : files.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (SpriteConfiguration config : entry.getValue()) {
+                    writeString(out, config.getRef());
+                    writeString(out, config.getSheetName());
+                    out.writeInt(config.getDelay());
+                    out.writeInt(config.getOffsetX());
+                    out.writeInt(config.getOffsetY());
+                }
+            }
+        } catch (IOException ex) {
+            fail("Could not write the sprite manifest: " + file, ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for the manifest: " + s);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+}
@@ -244,7 +244,7 @@ public abstract class Monster extends Entity implements Logicable, AttackTarget,
         setCount(0);
         cycleFrames(DIE, false);
         changeToState(DIE);
-        Effects.fade(Fade.OUT, getGame(), getSprites().get(DIE), getStateDelay(DIE));
+        Effects.fade(Fade.OUT, getGame(), this, getStateDelay(DIE));
     }
 
     /**
@@ -1,5 +1,6 @@
 package kawaiiklash;
 
+import java.util.ArrayList;
 import java.util.List;
 import static kawaiiklash.Direction.DOWN;
 import static kawaiiklash.Direction.LEFT;
@@ -119,7 +120,7 @@ public class NeoHuroid extends Monster implements Boss, PlatformWalker, Attacker
     public void doLogic() {
         for (final Platform platform : platforms) {
             Rect tile = platform.getHitbox();
-            Direction dir = getCollideDir(tile);
+            Direction dir = getGame().getCollideDir(this, platform);
             Direction dirX = getDirX();
             Direction dirY = getDirY();
             double x = getX();
@@ -154,13 +155,13 @@ public class NeoHuroid extends Monster implements Boss, PlatformWalker, Attacker
     }
 
     @Override
-    public Rect getHitbox() {
+    protected void updateHitbox(Hitbox box) {
         final SpriteSheet ss = getSprites().get(HITBOX);
         final double bx = getX() + ss.getOffsetX();
         final double by = getY() + ss.getOffsetY();
         final double bw = ss.getWidth();
         final double bh = ss.getHeight();
-        return new Rect(bx, by, bw, bh);
+        box.set(bx, by, bw, bh);
     }
 
     @Override
@@ -297,6 +298,12 @@ public class NeoHuroid extends Monster implements Boss, PlatformWalker, Attacker
 
     private class PlayerFinder implements Scanner {
 
+        /**
+         * The list that the objects in the scan area are put into, which
+         * is reused for every scan.
+         */
+        private final List<Object> scanObjects = new ArrayList<>(0);
+
         @Override
         public ScannerImpl<Player, Platform> getScanner() {
             return new ScannerImpl<>(Player.class, Platform.class);
@@ -304,7 +311,7 @@ public class NeoHuroid extends Monster implements Boss, PlatformWalker, Attacker
 
         @Override
         public List<Object> getScanObjects() {
-            return getGame().getObjects();
+            return getGame().getObjects(getScanArea(), scanObjects);
         }
 
         @Override
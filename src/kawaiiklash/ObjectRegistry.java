@@ -0,0 +1,336 @@
+package kawaiiklash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The registry of all the game objects. Besides the list of every object,
+ * the registry keeps a dense array for each capability that a game object
+ * may have, so that each phase of the game only goes through the objects
+ * that take part in it, without checking the type of every object. An
+ * object's capabilities are checked once, when it is added.
+ * <p>
+ * A {@code Collideable} that is part of the static geometry, which is a
+ * {@code Platform} that does not move by itself, is left out of the
+ * {@code Collideable} objects, since it is only found through the static
+ * spatial index. Every {@code Drawable} is also kept in a
+ * {@code RenderQueue}, by its z value. One that is not {@code Collideable}
+ * is always drawn, while one that is is hidden until the game tags it
+ * with its place in a spatial index.
+ * <p>
+ * All the arrays keep the order in which the objects were added. Each
+ * array knows the slot of every object in it, so an object is only held
+ * once, and adding, removing and finding an object take constant time.
+ * A removed object leaves an empty slot, which is {@code null}, and the
+ * empty slots are compacted away once they make up half of an array, so
+ * the cost of compacting is spread over the removals.
+ *
+ * @author Jeff Niu
+ */
+public class ObjectRegistry {
+
+    /**
+     * The smallest number of empty slots before an array is compacted.
+     */
+    private static final int MIN_COMPACT = 16;
+
+    /**
+     * A dense array of the objects with one capability.
+     *
+     * @param <T> the capability
+     */
+    static class Bucket<T> {
+
+        T[] items;
+        /**
+         * The number of slots in use, including the empty ones.
+         */
+        int size;
+        /**
+         * The number of empty slots.
+         */
+        private int empty;
+        /**
+         * The slot of each object in the array.
+         */
+        private final IdentityHashMap<Object, Integer> slots;
+
+        Bucket(T[] items) {
+            this.items = items;
+            size = 0;
+            empty = 0;
+            slots = new IdentityHashMap<>();
+        }
+
+        boolean add(T item) {
+            if (slots.containsKey(item)) {
+                return false;
+            }
+            if (size == items.length) {
+                items = Arrays.copyOf(items, Math.max(16, size * 2));
+            }
+            slots.put(item, size);
+            items[size++] = item;
+            return true;
+        }
+
+        boolean remove(Object item) {
+            final Integer slot = slots.remove(item);
+            if (slot == null) {
+                return false;
+            }
+            items[slot] = null;
+            empty++;
+            if (empty >= MIN_COMPACT && empty * 2 >= size) {
+                compact();
+            }
+            return true;
+        }
+
+        boolean contains(Object item) {
+            return slots.containsKey(item);
+        }
+
+        /**
+         * Get the slot of an object.
+         *
+         * @param item
+         * @return the slot, or -1 if the object is not in the array
+         */
+        int slotOf(Object item) {
+            final Integer slot = slots.get(item);
+            return slot != null ? slot : -1;
+        }
+
+        /**
+         * Notification that compacting has moved an object to another
+         * slot, for a subclass that keeps something with each slot.
+         *
+         * @param from
+         * @param to
+         */
+        void moved(int from, int to) {
+        }
+
+        /**
+         * Move the objects down over the empty slots, keeping their order.
+         */
+        private void compact() {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (items[i] != null) {
+                    if (kept != i) {
+                        items[kept] = items[i];
+                        slots.put(items[kept], kept);
+                        moved(i, kept);
+                    }
+                    kept++;
+                }
+            }
+            Arrays.fill(items, kept, size, null);
+            size = kept;
+            empty = 0;
+        }
+
+    }
+
+    private final Bucket<Object> objects;
+    private final Bucket<Updateable> updateables;
+    private final Bucket<Collideable> collideables;
+    private final Bucket<Logicable> logicables;
+    private final RenderQueue drawables;
+    private final Bucket<Interpolatable> interpolatables;
+
+    /**
+     * The list of all the objects made by the last call to
+     * {@link #getObjects()}, or null if the registry has changed since.
+     */
+    private List<Object> list;
+
+    /**
+     * Create an empty {@code ObjectRegistry}.
+     */
+    public ObjectRegistry() {
+        objects = new Bucket<>(new Object[0]);
+        updateables = new Bucket<>(new Updateable[0]);
+        collideables = new Bucket<>(new Collideable[0]);
+        logicables = new Bucket<>(new Logicable[0]);
+        drawables = new RenderQueue();
+        interpolatables = new Bucket<>(new Interpolatable[0]);
+        list = null;
+    }
+
+    /**
+     * Create an {@code ObjectRegistry} holding the given objects, in
+     * order.
+     *
+     * @param objects
+     */
+    public ObjectRegistry(Collection<?> objects) {
+        this();
+        for (final Object o : objects) {
+            add(o);
+        }
+    }
+
+    /**
+     * Add an object to the end of the registry, if it is not already in
+     * the registry.
+     *
+     * @param o
+     */
+    public synchronized void add(Object o) {
+        if (!objects.add(o)) {
+            return;
+        }
+        list = null;
+        if (o instanceof Updateable) {
+            updateables.add((Updateable) o);
+        }
+        if (o instanceof Collideable && !isStatic(o)) {
+            collideables.add((Collideable) o);
+        }
+        if (o instanceof Logicable) {
+            logicables.add((Logicable) o);
+        }
+        if (o instanceof Drawable) {
+            drawables.add((Drawable) o, o instanceof Collideable ? RenderQueue.HIDDEN : RenderQueue.ALWAYS);
+        }
+        if (o instanceof Interpolatable) {
+            interpolatables.add((Interpolatable) o);
+        }
+    }
+
+    /**
+     * Remove an object from the registry.
+     *
+     * @param o
+     */
+    public synchronized void remove(Object o) {
+        if (!objects.remove(o)) {
+            return;
+        }
+        list = null;
+        updateables.remove(o);
+        collideables.remove(o);
+        logicables.remove(o);
+        if (o instanceof Drawable) {
+            drawables.remove((Drawable) o);
+        }
+        interpolatables.remove(o);
+    }
+
+    /**
+     * Check whether an object is in the registry.
+     *
+     * @param o
+     * @return
+     */
+    public synchronized boolean contains(Object o) {
+        return objects.contains(o);
+    }
+
+    /**
+     * Check whether an object is part of the static geometry, which is
+     * every {@code Platform} that does not move by itself.
+     *
+     * @param o
+     * @return
+     */
+    public static boolean isStatic(Object o) {
+        return o instanceof Platform && !((Platform) o).isMoving();
+    }
+
+    /**
+     * Get an unmodifiable list of all the objects, in order. The list is
+     * made again only if the registry has changed since the last call.
+     *
+     * @return
+     */
+    public synchronized List<Object> getObjects() {
+        if (list == null) {
+            final List<Object> all = new ArrayList<>(objects.slots.size());
+            for (int i = 0; i < objects.size; i++) {
+                if (objects.items[i] != null) {
+                    all.add(objects.items[i]);
+                }
+            }
+            list = Collections.unmodifiableList(all);
+        }
+        return list;
+    }
+
+    /**
+     * Get the array of {@code Updateable} objects. Only the first
+     * {@link #updateableCount()} slots are used, and empty slots are
+     * {@code null}.
+     *
+     * @return
+     */
+    public Updateable[] updateables() {
+        return updateables.items;
+    }
+
+    public int updateableCount() {
+        return updateables.size;
+    }
+
+    /**
+     * Get the array of {@code Collideable} objects that are not part of the
+     * static geometry. Only the first {@link #collideableCount()} slots are
+     * used, and empty slots are {@code null}.
+     *
+     * @return
+     */
+    public Collideable[] collideables() {
+        return collideables.items;
+    }
+
+    public int collideableCount() {
+        return collideables.size;
+    }
+
+    /**
+     * Get the array of {@code Logicable} objects. Only the first
+     * {@link #logicableCount()} slots are used, and empty slots are
+     * {@code null}.
+     *
+     * @return
+     */
+    public Logicable[] logicables() {
+        return logicables.items;
+    }
+
+    public int logicableCount() {
+        return logicables.size;
+    }
+
+    /**
+     * Get the {@code RenderQueue} of all the {@code Drawable} objects.
+     *
+     * @return
+     */
+    public RenderQueue drawables() {
+        return drawables;
+    }
+
+    /**
+     * Get the array of {@code Interpolatable} objects. Only the first
+     * {@link #interpolatableCount()} slots are used, and empty slots are
+     * {@code null}.
+     *
+     * @return
+     */
+    public Interpolatable[] interpolatables() {
+        return interpolatables.items;
+    }
+
+    public int interpolatableCount() {
+        return interpolatables.size;
+    }
+
+}
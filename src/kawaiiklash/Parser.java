@@ -6,7 +6,6 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URISyntaxException;
@@ -15,11 +14,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
-import javax.script.ScriptException;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -93,16 +90,11 @@ public class Parser {
      */
     private final HashMap<String, List<SpriteConfiguration>> cache = new HashMap<>(Package.getPackages().length);
 
-    private final ScriptEngineManager mgr;
-    private final ScriptEngine engine;
-
     /**
      * Private constructor to prevent any other class from instantiating
      * this class.
      */
     private Parser() {
-        mgr = new ScriptEngineManager();
-        engine = mgr.getEngineByName("JavaScript");
     }
 
     /**
@@ -119,6 +111,12 @@ public class Parser {
         if (cache.get(dataFile) != null) {
             return cache.get(dataFile);
         }
+        // Files that were compiled into the sprite manifest are read from it
+        List<SpriteConfiguration> compiled = SpriteManifest.get().read(dataFile);
+        if (compiled != null) {
+            cache.put(dataFile, compiled);
+            return compiled;
+        }
         URL url = getClass().getClassLoader().getResource(dataFile);
         List<SpriteConfiguration> configs = new ArrayList<>(fileLengthOf(url));
         try {
@@ -144,15 +142,9 @@ public class Parser {
                         if (method != null) {
                             String value = attribute.getValue();
                             try {
-                                method.invoke(config, engine.eval(value).toString());
+                                method.invoke(config, Expression.evaluate(value, null));
                             } catch (InvocationTargetException ex) {
                                 fail(String.format("Could not invoke SpriteConfiguration method: %s, %s", method, dataFile), ex);
-                            } catch (ScriptException ex) {
-                                try {
-                                    method.invoke(config, value);
-                                } catch (InvocationTargetException exc) {
-                                    fail(String.format("Could not invoke method: &s, &s", method, dataFile), exc);
-                                }
                             }
                         }
                     }
@@ -193,7 +185,9 @@ public class Parser {
      * acceleration values are dealt with in the Entity subclass. The
      * primary function of this method is to dynamically create the
      * instances of the Entities and set their positions. Dynamically read
-     * a level.xml and return all specified Objects.
+     * a level.xml and return all specified Objects. Attribute values may
+     * be arithmetic {@link Expression}s, which may use the constants
+     * {@code screenWidth} and {@code screenHeight}.
      *
      * @param game
      * @param levelFile
@@ -207,11 +201,15 @@ public class Parser {
         }
         int fileLength = fileLengthOf(url);
         List<Object> objects = new ArrayList<>(fileLength);
+        // The constants that attribute expressions may use
+        Map<String, Double> constants = new HashMap<>(4);
+        constants.put("screenWidth", game.getScreen().getWidth());
+        constants.put("screenHeight", game.getScreen().getHeight());
         try {
             XMLInputFactory inputFactory = XMLInputFactory.newInstance();
             InputStream inputStream = url.openStream();
             XMLEventReader eventReader = inputFactory.createXMLEventReader(inputStream);
-            Package[] packages = Package.getPackages();
+            ElementRegistry registry = ElementRegistry.get();
             while (eventReader.hasNext()) {
                 XMLEvent event = eventReader.nextEvent();
                 Object object = null;
@@ -219,24 +217,12 @@ public class Parser {
                 if (event.isStartElement()) {
                     StartElement startElement = event.asStartElement();
                     objectName = startElement.getName().toString();
-                    Class<?> cls = null;
-                    Constructor<?> ctor = null;
-                    for (Package p : packages) {
-                        String packageName = p.getName();
-                        String tentative = packageName + "." + objectName;
+                    ElementRegistry.Element element = registry.find(objectName);
+                    if (element != null && element.canCreate(Game.class)) {
                         try {
-                            cls = Class.forName(tentative);
-                            ctor = cls.getConstructor(Game.class);
-                        } catch (ClassNotFoundException | NoSuchMethodException | NoClassDefFoundError ex) {
-                            continue;
-                        }
-                        break;
-                    }
-                    if (cls != null && ctor != null) {
-                        try {
-                            object = ctor.newInstance(game);
-                        } catch (InvocationTargetException | InstantiationException ex) {
-                            throw new SlickException("Could not invoke Object constructor: " + ctor, ex);
+                            object = element.create(Game.class, game);
+                        } catch (NoSuchMethodException | InvocationTargetException ex) {
+                            throw new SlickException("Could not invoke Object constructor: " + objectName, ex);
                         }
                         if (object != null) {
                             @SuppressWarnings("unchecked")
@@ -245,25 +231,12 @@ public class Parser {
                                 Attribute attribute = attributes.next();
                                 String methodName = attribute.getName().toString();
                                 String param = attribute.getValue();
-                                Method method = null;
                                 try {
-                                    method = object.getClass().getMethod(methodName, String.class);
-                                    if (method == null) {
-                                        throw new NoSuchMethodException("Object method not found");
-                                    }
+                                    element.set(object, methodName, Expression.evaluate(param, constants));
                                 } catch (NoSuchMethodException ex) {
-                                    throw new SlickException("Failed to find method: " + method, ex);
-                                }
-                                try {
-                                    method.invoke(object, engine.eval(param).toString());
+                                    throw new SlickException("Failed to find method: " + methodName, ex);
                                 } catch (InvocationTargetException ex) {
-                                    throw new SlickException("Could not invoke method: " + method + ", param: " + param, ex);
-                                } catch (ScriptException ex) {
-                                    try {
-                                        method.invoke(object, param);
-                                    } catch (IllegalArgumentException | InvocationTargetException exc) {
-                                        throw new SlickException("Could not invoke method: " + method + ", param: " + param, exc);
-                                    }
+                                    throw new SlickException("Could not invoke method: " + methodName + ", param: " + param, ex);
                                 }
                             }
                             objects.add(object);
@@ -273,10 +246,6 @@ public class Parser {
             }
         } catch (IOException ex) {
             throw new SlickException("Level file not found: " + levelFile, ex);
-        } catch (SecurityException ex) {
-            throw new SlickException("Cannot access constructor", ex);
-        } catch (IllegalAccessException ex) {
-            throw new SlickException("Access to constructor restricted", ex);
         } catch (XMLStreamException ex) {
             throw new SlickException("Error occured while reading XML events from xml file", ex);
         }
@@ -34,7 +34,7 @@ public interface PlatformJumper extends Interactable {
 
     List<Platform> getPlatforms();
 
-    List<Object> getObjects();
+    List<Object> getObjects(Rect area);
 
     default QuadCurve getArc() {
         final double dx = getJumpLength() * getDirX().unit();
@@ -176,7 +176,7 @@ public interface PlatformJumper extends Interactable {
         final QuadCurve extendedArc = getExtendedArc(arc, hitbox.width);
         final Rect boundingBox = extendedArc.getBounds2D();
         boundingBox.translate(0, boundingBox.height * 0.5);
-        final List<Object> gameObjects = getObjects();
+        final List<Object> gameObjects = getObjects(boundingBox);
         if (gameObjects.isEmpty()) {
             return false;
         }
@@ -282,7 +282,7 @@ public interface PlatformJumper extends Interactable {
         final QuadCurve extendedArc = getExtendedArc(arc, hitbox.width);
         final Rect boundingBox = extendedArc.getBounds2D();
         boundingBox.translate(0, boundingBox.height * 0.5);
-        final List<Object> gameObjects = getObjects();
+        final List<Object> gameObjects = getObjects(boundingBox);
         if (gameObjects.isEmpty()) {
             return;
         }
@@ -23,6 +23,13 @@ public interface PlatformWalker extends Interactable {
      */
     static final int MARGIN = 5;
 
+    /**
+     * Get the {@code Game} to which the {@code PlatformWalker} belongs.
+     *
+     * @return
+     */
+    Game getGame();
+
     /**
      * Request that the {@code Monster} pass over its {@code List} of all
      * the hitboxes of the {@code Tile} objects with which it has collided.
@@ -33,7 +40,7 @@ public interface PlatformWalker extends Interactable {
     default List<Rect> getPlatforms(final List<Platform> tiles) {
         final List<Rect> platforms = new ArrayList<>(tiles.size());
         for (final Platform tile : tiles) {
-            final Direction dir = getCollideDir(tile);
+            final Direction dir = getGame().getCollideDir(this, tile);
             if (dir == UP && getDirY() == DOWN) {
                 platforms.add(tile.getHitbox());
             }
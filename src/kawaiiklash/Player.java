@@ -176,10 +176,10 @@ public class Player extends Entity implements Logicable, Attacker, AttackTarget
      * standard state. This method will use the STATE_STAND as the standard
      * hitbox and use layer zero.
      *
-     * @return the hitbox of the player
+     * @param box the hitbox of the player
      */
     @Override
-    public Rect getHitbox() {
+    protected void updateHitbox(Hitbox box) {
         final SpriteSheet sheet = getSprites().get(HITBOX);
         final double hx = getX() + sheet.getOffsetX();
         final double hw = sheet.getWidth();
@@ -189,7 +189,7 @@ public class Player extends Entity implements Logicable, Attacker, AttackTarget
             hy += PRONE_HITBOX_REDUCTION;
             hh -= PRONE_HITBOX_REDUCTION;
         }
-        return new Rect(hx, hy, hw, hh);
+        box.set(hx, hy, hw, hh);
     }
 
     /**
@@ -204,7 +204,7 @@ public class Player extends Entity implements Logicable, Attacker, AttackTarget
             Platform p = (Platform) other;
             Rect tile = p.getHitbox();
             SpriteSheet hitbox = getSprites().get(HITBOX);
-            Direction dir = getCollideDir(tile);
+            Direction dir = getGame().getCollideDir(this, p);
             Direction dirY = getDirY();
             double x = getX();
             double y = getY();
@@ -246,7 +246,7 @@ public class Player extends Entity implements Logicable, Attacker, AttackTarget
     public void takeDamage(Attacker m, Attack attack) {
         invincibleCount = 0;
         int flashDelay = INVINCIBLE / FLASHES / 2;
-        Effects.flash(Color.red, getGame(), getSprites(), FLASHES, flashDelay, flashDelay);
+        Effects.flash(Color.red, getGame(), this, FLASHES, flashDelay, flashDelay);
         hitSound.playEffect(getGame().getPitch(), getGame().getGain(), false);
         hit = true;
         prone = false;
@@ -466,8 +466,9 @@ public class Player extends Entity implements Logicable, Attacker, AttackTarget
         final Game game = getGame();
         final Rect border = game.getBorder();
         final Rect hitbox = getHitbox();
-        final double x = getX();
-        final double y = getY();
+        final Rect screen = game.getScreen();
+        final double x = getX() - screen.getX();
+        final double y = getY() - screen.getY();
         if (x + hitbox.getWidth() > border.getX() + border.getWidth()) {
             final double moveX = x + hitbox.getWidth() - border.getX() - border.getWidth();
             game.xScroll(moveX);
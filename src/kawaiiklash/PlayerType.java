@@ -7,22 +7,39 @@ package kawaiiklash;
  */
 public enum PlayerType {
 
-    Hero(0), 
-    Mage(1), 
-    Cory(2), 
-    Hermit(3);
+    Hero(0, "SlashBlast", "RadiantDriver", "IntrepidSlash"), 
+    Mage(1, "FlameOrb", "ThunderBolt", "HolyArrow"), 
+    Cory(2, "ShadowSpark", "BlueMushroom"), 
+    Hermit(3, "ShadowSpark", "QuadStar", "QuintupleThrow");
     
     /**
      * The index of the PlayerType.
      */
     private final int index;
     
+    /**
+     * The names of the objects that the PlayerType attacks with.
+     */
+    private final String[] attacks;
+    
     /**
      * Create a new PlayerType.
      * 
      * @param index 
+     * @param attacks
      */
-    private PlayerType(int index) {
+    private PlayerType(int index, String... attacks) {
         this.index = index;
+        this.attacks = attacks;
+    }
+    
+    /**
+     * Get the names of the objects that the PlayerType attacks with, so
+     * that their sprites and sounds may be loaded ahead of time.
+     * 
+     * @return 
+     */
+    public String[] getAttacks() {
+        return attacks.clone();
     }
 }
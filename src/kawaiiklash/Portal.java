@@ -43,14 +43,9 @@ public class Portal extends Entity {
     }
 
     @Override
-    public Rect getHitbox() {
-        SpriteSheet hit = getSprites().get(HITBOX);
-        Rect b = new Rect();
-        b.x = getX() + hit.getOffsetX();
-        b.y = getY() + hit.getOffsetY();
-        b.width = hit.getWidth();
-        b.height = hit.getHeight();
-        return b;
+    protected void updateHitbox(Hitbox box) {
+        final SpriteSheet hit = getSprites().get(HITBOX);
+        box.set(getX() + hit.getOffsetX(), getY() + hit.getOffsetY(), hit.getWidth(), hit.getHeight());
     }
 
     @Override
@@ -104,7 +99,7 @@ public class Portal extends Entity {
             Player plr = (Player) other;
             plr.setDead(true);
             plr.setActive(false);
-            Effects.fade(Effects.Fade.OUT, getGame(), plr.getSprites(), getStateDelay(EXIT));
+            Effects.fade(Effects.Fade.OUT, getGame(), plr, getStateDelay(EXIT));
             List<Sound> sounds = plr.getSounds();
             for (Sound sound : sounds) {
                 if (sound.getName().equals("complete")) {
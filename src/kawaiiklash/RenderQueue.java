@@ -0,0 +1,167 @@
+package kawaiiklash;
+
+import java.util.Arrays;
+
+/**
+ * The {@code RenderQueue} keeps {@code Drawable} objects in the order in
+ * which they are drawn. There is one layer for each {@code Drawable} z
+ * value, from {@link Drawable#BACKGROUND} to {@link Drawable#HUD}, and
+ * each layer keeps the order in which its objects were added. So the
+ * layers are drawn one after the other, and an object added while the
+ * game is running, such as an attack or a cloud, is drawn with the other
+ * objects of its layer instead of on top of everything.
+ * <p>
+ * Each object has a tag, which the game uses to tell whether it is drawn
+ * in a frame: an object is either always drawn, hidden, or found through
+ * a spatial index, in which case the tag says where. So the game can pick
+ * out the objects to draw while it goes through the layers in order,
+ * without looking anything up or sorting.
+ * <p>
+ * Adding and removing an object and changing its tag take constant time.
+ * The z value of an object must not change while it is in the queue.
+ *
+ * @author Jeff Niu
+ */
+public class RenderQueue {
+
+    /**
+     * The number of layers.
+     */
+    public static final int LAYERS = Drawable.HUD - Drawable.BACKGROUND + 1;
+
+    /**
+     * The tag of an object that is always drawn, and of one that is never
+     * drawn. Other tags are up to the game.
+     */
+    public static final int ALWAYS = -1;
+    public static final int HIDDEN = -2;
+
+    /**
+     * Get the layer of a z value. Z values outside the known range go into
+     * the first or the last layer.
+     *
+     * @param z
+     * @return
+     */
+    public static int layerOf(int z) {
+        return Math.max(0, Math.min(LAYERS - 1, z - Drawable.BACKGROUND));
+    }
+
+    /**
+     * A layer, which keeps the tag of each object in the slot of the
+     * object.
+     */
+    private static class Layer extends ObjectRegistry.Bucket<Drawable> {
+
+        private int[] tags;
+
+        private Layer() {
+            super(new Drawable[0]);
+            tags = new int[0];
+        }
+
+        private boolean add(Drawable d, int tag) {
+            if (!add(d)) {
+                return false;
+            }
+            if (tags.length < items.length) {
+                tags = Arrays.copyOf(tags, items.length);
+            }
+            tags[size - 1] = tag;
+            return true;
+        }
+
+        @Override
+        void moved(int from, int to) {
+            tags[to] = tags[from];
+        }
+
+    }
+
+    /**
+     * The layers, from the back to the front.
+     */
+    private final Layer[] layers;
+
+    /**
+     * Create an empty {@code RenderQueue}.
+     */
+    public RenderQueue() {
+        layers = new Layer[LAYERS];
+        for (int i = 0; i < LAYERS; i++) {
+            layers[i] = new Layer();
+        }
+    }
+
+    /**
+     * Add an object to the end of its layer, if it is not already in the
+     * queue.
+     *
+     * @param d
+     * @param tag the tag of the object
+     */
+    public void add(Drawable d, int tag) {
+        layers[layerOf(d.getZ())].add(d, tag);
+    }
+
+    /**
+     * Remove an object from the queue.
+     *
+     * @param d
+     */
+    public void remove(Drawable d) {
+        if (!layers[layerOf(d.getZ())].remove(d)) {
+            // The z value has changed after all, so look everywhere
+            for (Layer layer : layers) {
+                if (layer.remove(d)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Change the tag of an object in the queue.
+     *
+     * @param d
+     * @param tag
+     */
+    public void setTag(Drawable d, int tag) {
+        Layer layer = layers[layerOf(d.getZ())];
+        int slot = layer.slotOf(d);
+        for (int i = 0; slot < 0 && i < LAYERS; i++) {
+            layer = layers[i];
+            slot = layer.slotOf(d);
+        }
+        if (slot >= 0) {
+            layer.tags[slot] = tag;
+        }
+    }
+
+    /**
+     * Get the array of the objects in a layer. Only the first
+     * {@link #layerSize(int)} slots are used, and empty slots are
+     * {@code null}.
+     *
+     * @param layer
+     * @return
+     */
+    public Drawable[] layer(int layer) {
+        return layers[layer].items;
+    }
+
+    public int layerSize(int layer) {
+        return layers[layer].size;
+    }
+
+    /**
+     * Get the array of the tags of the objects in a layer, by slot.
+     *
+     * @param layer
+     * @return
+     */
+    public int[] tags(int layer) {
+        return layers[layer].tags;
+    }
+
+}
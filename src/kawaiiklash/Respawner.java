@@ -205,7 +205,6 @@ public class Respawner extends Reactor implements Drawable {
     private boolean inBounds() {
         Game game = getGame();
         Rect screen = game.getScreen();
-        Rect bounds = new Rect(0.0, 0.0, screen.getWidth(), screen.getHeight());
         double sx = x + sprite.getOffsetX();
         double sy = y + sprite.getOffsetY();
         if (upsidedown) {
@@ -214,7 +213,7 @@ public class Respawner extends Reactor implements Drawable {
         if (dir == Direction.RIGHT) {
             sx += 32;
         }
-        return sx > 0 && sx < bounds.getWidth() && sy < bounds.getHeight();
+        return sx > screen.getMinX() && sx < screen.getMaxX() && sy < screen.getMaxY();
     }
 
     /**
@@ -22,12 +22,40 @@ public interface Sound {
 
     String getName();
 
-    default void playEffect(float pitch, float gain, boolean loop) {
-        getAudio().playAsSoundEffect(pitch * getPitch(), gain * getGain(), loop);
-    }
-
-    default void playMusic(float pitch, float gain, boolean loop) {
-        getAudio().playAsMusic(pitch * getPitch(), gain * getGain(), loop);
-    }
+    /**
+     * Play the sound as a sound effect. Sounds are only played on the main
+     * thread, so a sound played by an object that is being updated on a
+     * worker is played when the update phase is done.
+     *
+     * @param pitch
+     * @param gain
+     * @param loop
+     */
+    void playEffect(float pitch, float gain, boolean loop);
+
+    /**
+     * Play the sound as music, on the main thread, like
+     * {@link #playEffect}.
+     *
+     * @param pitch
+     * @param gain
+     * @param loop
+     */
+    void playMusic(float pitch, float gain, boolean loop);
+
+    /**
+     * Stop the sound if this handle is still playing it. Other handles to
+     * the same audio are not stopped.
+     */
+    void stop();
+
+    /**
+     * Check whether this handle is still playing. A sound that has been
+     * played on a worker and is waiting to be played on the main thread
+     * counts as playing.
+     *
+     * @return
+     */
+    boolean isPlaying();
 
 }
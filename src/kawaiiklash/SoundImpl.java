@@ -1,9 +1,15 @@
 package kawaiiklash;
 
+import org.lwjgl.openal.AL10;
 import org.newdawn.slick.openal.Audio;
 
 /**
  * A simple wrapper class for the Slick2D audio.
+ * <p>
+ * Many handles may share the same decoded audio, but each one remembers
+ * the source that it last played on. The source is only this handle's
+ * for as long as it still holds the buffer of the audio, since another
+ * sound may take it over once this one is done.
  *
  * @author Jeff Niu
  */
@@ -14,11 +20,83 @@ public class SoundImpl implements Sound {
     private final Audio audio;
     private final String name;
 
+    /**
+     * The source that the sound was last played on, or -1.
+     */
+    private volatile int source;
+
+    /**
+     * Whether the sound has been played on a worker and is waiting to be
+     * played on the main thread.
+     */
+    private volatile boolean pending;
+
     public SoundImpl(Audio audio, String name) {
         this.audio = audio;
         this.name = name;
         pitch = 1.0f;
         gain = 1.0f;
+        source = -1;
+        pending = false;
+    }
+
+    @Override
+    public void playEffect(float pitch, float gain, boolean loop) {
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            pending = true;
+            buffer.post(() -> playEffect(pitch, gain, loop));
+            return;
+        }
+        source = audio.playAsSoundEffect(pitch * this.pitch, gain * this.gain, loop);
+        pending = false;
+    }
+
+    @Override
+    public void playMusic(float pitch, float gain, boolean loop) {
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            pending = true;
+            buffer.post(() -> playMusic(pitch, gain, loop));
+            return;
+        }
+        source = audio.playAsMusic(pitch * this.pitch, gain * this.gain, loop);
+        pending = false;
+    }
+
+    /**
+     * Stop the sound on the main thread. A stop from a worker is posted
+     * after any play from the same step, so it stops that too.
+     */
+    @Override
+    public void stop() {
+        final CommandBuffer buffer = CommandBuffer.current();
+        if (buffer != null) {
+            buffer.post(this::stop);
+            return;
+        }
+        final int s = source;
+        if (owns(s)) {
+            AL10.alSourceStop(s);
+        }
+        source = -1;
+    }
+
+    @Override
+    public boolean isPlaying() {
+        final int s = source;
+        return pending || owns(s) && AL10.alGetSourcei(s, AL10.AL_SOURCE_STATE) == AL10.AL_PLAYING;
+    }
+
+    /**
+     * Check whether the source that the sound was last played on still
+     * holds its audio.
+     *
+     * @param s the source
+     * @return
+     */
+    private boolean owns(int s) {
+        return s != -1 && AL10.alGetSourcei(s, AL10.AL_BUFFER) == audio.getBufferID();
     }
 
     @Override
@@ -6,12 +6,18 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import static kawaiiklash.Utility.fail;
+import org.newdawn.slick.SlickException;
 import org.newdawn.slick.openal.Audio;
 import org.newdawn.slick.openal.AudioLoader;
-import org.newdawn.slick.util.ResourceLoader;
 
 /**
  * Like the sprite loader except it loads sounds. It is a singleton.
+ * <p>
+ * Decoded audio is cached by the reference of its file, and the list of
+ * sounds by the reference of its data file, so each sound file is only
+ * read and decoded once. Every call hands out new {@code Sound} handles,
+ * so the pitch and gain of each one may be changed without affecting the
+ * others, while they all share the decoded audio.
  *
  * @author Jeff Niu
  */
@@ -30,35 +36,80 @@ public class SoundLoader {
         return file.substring(0, file.indexOf('.'));
     }
 
+    /**
+     * The decoded audio, by the reference of the sound file.
+     */
+    private final HashMap<String, Audio> audio;
+
+    /**
+     * The sounds that have been loaded, by the reference of their data
+     * file. These are never handed out, only copied.
+     */
+    private final HashMap<String, List<Sound>> cache;
+
     private SoundLoader() {
+        audio = new HashMap<>(100);
+        cache = new HashMap<>(50);
     }
 
     private Audio loadAudio(String ref) {
-        InputStream in = ResourceLoader.getResourceAsStream(ref);
-        Audio sound;
+        Audio sound = audio.get(ref);
+        if (sound != null) {
+            return sound;
+        }
+        // The sound buffer is made on the main thread, even for an object
+        // that is being created on a worker
         try {
-            sound = AudioLoader.getAudio("WAV", in);
-        } catch (IOException ex) {
+            sound = CommandBuffer.callOnMainThread(() -> {
+                InputStream in = AssetPreloader.get().openSound(ref);
+                try {
+                    return AudioLoader.getAudio("WAV", in);
+                } catch (IOException ex) {
+                    throw new SlickException("Could not load sound: " + ref, ex);
+                }
+            });
+        } catch (SlickException ex) {
             sound = null;
             fail(ex);
         }
+        if (sound != null) {
+            audio.put(ref, sound);
+        }
         return sound;
     }
 
-    public List<Sound> loadSounds(String ref) {
+    /**
+     * Make a new handle for each sound in a list.
+     *
+     * @param src
+     * @return
+     */
+    private static List<Sound> copyList(List<Sound> src) {
+        List<Sound> dest = new ArrayList<>(src.size());
+        for (Sound sound : src) {
+            dest.add(new SoundImpl(sound.getAudio(), sound.getName()));
+        }
+        return dest;
+    }
+
+    public synchronized List<Sound> loadSounds(String ref) {
         if (ref == null) {
             return null;
         }
+        if (cache.get(ref) != null) {
+            return copyList(cache.get(ref));
+        }
         Parser parser = Parser.get();
         List<String> files = parser.getAudioFiles(ref);
         List<Sound> sounds = new ArrayList<>(files.size());
         for (String file : files) {
-            Audio audio = loadAudio(SpriteLoader.filePathSwap(ref, file));
+            Audio decoded = loadAudio(SpriteLoader.filePathSwap(ref, file));
             String name = getName(file);
-            Sound sound = new SoundImpl(audio, name);
+            Sound sound = new SoundImpl(decoded, name);
             sounds.add(sound);
         }
-        return sounds;
+        cache.put(ref, sounds);
+        return copyList(sounds);
     }
 
     public void preloadSound(String ref) {
@@ -0,0 +1,762 @@
+package kawaiiklash;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Graphics;
+
+/**
+ * A spatial index over rectangular boxes. The index is a uniform grid of
+ * square cells, hashed by their cell coordinates so that there is no limit
+ * to the area that it covers. Each item is given an integer handle when it
+ * is inserted, and moving or removing the item is done through that
+ * handle. An item is listed in every cell that its box touches, and each
+ * of those listings is a node taken from a pool. Once the pools have grown
+ * large enough, inserting, moving, removing and querying items does not
+ * allocate anything.
+ * <p>
+ * Moving an item whose box stays within the same cells only updates its
+ * box, so that the common case of a small movement is very cheap.
+ * <p>
+ * Cell coordinates are clamped to a range that is far larger than any
+ * level, so a huge or infinite box covers a bounded number of cells. An
+ * item whose box covers more than {@link #MAX_LINKED_CELLS} cells is not
+ * listed in its cells at all, but kept in a separate list of large items
+ * that every query checks.
+ * <p>
+ * Queries share the marks that make sure each item is visited once, so
+ * they are synchronized and may be made from several threads. Changing
+ * the index must only be done from one thread, while nothing queries it.
+ *
+ * @author Jeff Niu
+ * @param <T> the type of item in the index
+ */
+public class SpatialIndex<T> {
+
+    /**
+     * The default side length of a grid cell, which is a bit larger than
+     * a single tile.
+     */
+    public static final double DEFAULT_CELL_SIZE = 128.0;
+
+    /**
+     * The most cells that an item is listed in. Larger items are kept in
+     * the list of large items instead.
+     */
+    public static final int MAX_LINKED_CELLS = 256;
+
+    /**
+     * The largest cell coordinate, either way. Cell coordinates are
+     * clamped to this, so that cell ranges never overflow.
+     */
+    private static final int MAX_CELL = 1 << 20;
+
+    /**
+     * The value for an empty link.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * A receiver of the handles found by a query.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Visit an item found by a query.
+         *
+         * @param handle the handle of the item
+         */
+        void visit(int handle);
+
+    }
+
+    /**
+     * The side length of a cell.
+     */
+    private final double cellSize;
+
+    /**
+     * The items, by handle.
+     */
+    private Object[] items;
+    /**
+     * The bounds of the box of each item, by handle.
+     */
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    /**
+     * The range of cells covered by each item, by handle.
+     */
+    private int[] cellX0;
+    private int[] cellY0;
+    private int[] cellX1;
+    private int[] cellY1;
+    /**
+     * The first node of each item. The nodes of an item are chained by
+     * their sibling links. For a free handle, this is instead the next free
+     * handle.
+     */
+    private int[] firstNode;
+    /**
+     * The stamp of the last query that found each item, which stops an
+     * item that spans many cells from being found more than once.
+     */
+    private int[] marks;
+    /**
+     * The slot of each item in the list of large items, or {@code -1} if
+     * the item is listed in its cells.
+     */
+    private int[] largeSlot;
+    /**
+     * The handles of the large items.
+     */
+    private int[] large;
+    private int largeCount;
+    /**
+     * The number of handles that have ever been used.
+     */
+    private int handleCount;
+    /**
+     * The first free handle.
+     */
+    private int freeHandle;
+    /**
+     * The number of items in the index.
+     */
+    private int size;
+    /**
+     * The stamp of the current query.
+     */
+    private int stamp;
+    /**
+     * The handle of each item.
+     */
+    private final Map<T, Integer> handles;
+
+    /**
+     * The node pool. A node lists one item in one cell. The nodes of a
+     * cell form a doubly linked list so that they can be unlinked
+     * directly.
+     */
+    private int[] nodeHandle;
+    private int[] nodeCell;
+    private int[] nodeNext;
+    private int[] nodePrev;
+    private int[] nodeSibling;
+    /**
+     * The number of nodes that have ever been used.
+     */
+    private int nodeCount;
+    /**
+     * The first free node. Free nodes are chained by their next links.
+     */
+    private int freeNode;
+
+    /**
+     * The cells, by cell id. Cells are never removed, so that the ids held
+     * by nodes stay valid.
+     */
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private int cellCount;
+    /**
+     * The open addressing hash table from cell keys to cell ids. Each
+     * entry is one more than the cell id, or zero if the entry is empty.
+     */
+    private int[] table;
+
+    /**
+     * The list being filled by the current list query, and the visitor
+     * that fills it.
+     */
+    private List<? super T> sink;
+    private final Visitor collector = handle -> sink.add(get(handle));
+
+    /**
+     * Create an empty {@code SpatialIndex} with the default cell size.
+     */
+    public SpatialIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Create an empty {@code SpatialIndex}.
+     *
+     * @param cellSize the side length of a grid cell
+     */
+    public SpatialIndex(double cellSize) {
+        this.cellSize = cellSize;
+        handles = new IdentityHashMap<>();
+        final int capacity = 64;
+        items = new Object[capacity];
+        minX = new double[capacity];
+        minY = new double[capacity];
+        maxX = new double[capacity];
+        maxY = new double[capacity];
+        cellX0 = new int[capacity];
+        cellY0 = new int[capacity];
+        cellX1 = new int[capacity];
+        cellY1 = new int[capacity];
+        firstNode = new int[capacity];
+        marks = new int[capacity];
+        largeSlot = new int[capacity];
+        large = new int[16];
+        nodeHandle = new int[capacity];
+        nodeCell = new int[capacity];
+        nodeNext = new int[capacity];
+        nodePrev = new int[capacity];
+        nodeSibling = new int[capacity];
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        table = new int[capacity * 2];
+        clear();
+    }
+
+    /**
+     * Remove all the items. The pools are kept.
+     */
+    public void clear() {
+        handles.clear();
+        Arrays.fill(items, 0, handleCount, null);
+        Arrays.fill(cellHeads, 0, cellCount, NONE);
+        handleCount = 0;
+        freeHandle = NONE;
+        nodeCount = 0;
+        freeNode = NONE;
+        largeCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Get the number of items in the index.
+     *
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of handles that have been given out. Every handle is
+     * less than this number.
+     *
+     * @return
+     */
+    public int capacity() {
+        return handleCount;
+    }
+
+    /**
+     * Insert an item with the given box. If the item is already in the
+     * index, it is moved instead.
+     *
+     * @param item
+     * @param box
+     * @return the handle of the item
+     */
+    public int insert(T item, Rect box) {
+        return insert(item, box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+    }
+
+    /**
+     * Insert an item with the given bounds. If the item is already in the
+     * index, it is moved instead.
+     *
+     * @param item
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     * @return the handle of the item
+     */
+    public int insert(T item, double x0, double y0, double x1, double y1) {
+        final Integer existing = handles.get(item);
+        if (existing != null) {
+            move(existing, x0, y0, x1, y1);
+            return existing;
+        }
+        final int handle;
+        if (freeHandle != NONE) {
+            handle = freeHandle;
+            freeHandle = firstNode[handle];
+        } else {
+            if (handleCount == items.length) {
+                growHandles();
+            }
+            handle = handleCount++;
+        }
+        items[handle] = item;
+        marks[handle] = stamp;
+        firstNode[handle] = NONE;
+        largeSlot[handle] = NONE;
+        setBounds(handle, x0, y0, x1, y1);
+        link(handle);
+        handles.put(item, handle);
+        size++;
+        return handle;
+    }
+
+    /**
+     * Move the item with the given handle to a new box.
+     *
+     * @param handle
+     * @param box
+     */
+    public void move(int handle, Rect box) {
+        move(handle, box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+    }
+
+    /**
+     * Move the item with the given handle to new bounds. The item is only
+     * relinked if the cells it covers change.
+     *
+     * @param handle
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     */
+    public void move(int handle, double x0, double y0, double x1, double y1) {
+        final int cx0 = cell(x0);
+        final int cy0 = cell(y0);
+        final int cx1 = cell(x1);
+        final int cy1 = cell(y1);
+        final boolean relink = cx0 != cellX0[handle] || cy0 != cellY0[handle]
+                || cx1 != cellX1[handle] || cy1 != cellY1[handle];
+        if (relink) {
+            unlink(handle);
+        }
+        setBounds(handle, x0, y0, x1, y1);
+        if (relink) {
+            link(handle);
+        }
+    }
+
+    /**
+     * Remove the item with the given handle. The handle may be given to
+     * another item afterwards.
+     *
+     * @param handle
+     */
+    public void remove(int handle) {
+        unlink(handle);
+        handles.remove(get(handle));
+        items[handle] = null;
+        firstNode[handle] = freeHandle;
+        freeHandle = handle;
+        size--;
+    }
+
+    /**
+     * Remove an item, if it is in the index.
+     *
+     * @param item
+     */
+    public void remove(T item) {
+        final Integer handle = handles.get(item);
+        if (handle != null) {
+            remove((int) handle);
+        }
+    }
+
+    /**
+     * Get the handle of an item.
+     *
+     * @param item
+     * @return the handle, or {@code -1} if the item is not in the index
+     */
+    public int handleOf(T item) {
+        final Integer handle = handles.get(item);
+        return handle == null ? NONE : handle;
+    }
+
+    /**
+     * Get the item with the given handle.
+     *
+     * @param handle
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int handle) {
+        return (T) items[handle];
+    }
+
+    /**
+     * Add every item whose box overlaps the given area to the list. Each
+     * item is added only once.
+     *
+     * @param area
+     * @param out
+     * @return the list
+     */
+    public List<? super T> query(Rect area, List<? super T> out) {
+        return query(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), out);
+    }
+
+    /**
+     * Add every item whose box overlaps the given bounds to the list. Each
+     * item is added only once.
+     *
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     * @param out
+     * @return the list
+     */
+    public synchronized List<? super T> query(double x0, double y0, double x1, double y1, List<? super T> out) {
+        sink = out;
+        query(x0, y0, x1, y1, collector);
+        sink = null;
+        return out;
+    }
+
+    /**
+     * Visit every item whose box overlaps the given bounds. Each item is
+     * visited only once.
+     *
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     * @param visitor
+     */
+    public synchronized void query(double x0, double y0, double x1, double y1, Visitor visitor) {
+        nextStamp();
+        visitRange(x0, y0, x1, y1, visitor);
+    }
+
+    /**
+     * Visit every item whose box overlaps the given bounds and that has
+     * not been marked with the current stamp yet.
+     *
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     * @param visitor
+     */
+    private void visitRange(double x0, double y0, double x1, double y1, Visitor visitor) {
+        visitLarge(x0, y0, x1, y1, visitor);
+        final int cx0 = cell(x0);
+        final int cy0 = cell(y0);
+        final int cx1 = cell(x1);
+        final int cy1 = cell(y1);
+        if (span(cx0, cy0, cx1, cy1) > handleCount) {
+            // Looking at every item is cheaper than looking at every cell
+            for (int h = 0; h < handleCount; h++) {
+                if (items[h] != null && marks[h] != stamp) {
+                    marks[h] = stamp;
+                    if (overlaps(h, x0, y0, x1, y1)) {
+                        visitor.visit(h);
+                    }
+                }
+            }
+            return;
+        }
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                final int c = findCell(key(cx, cy));
+                if (c == NONE) {
+                    continue;
+                }
+                for (int n = cellHeads[c]; n != NONE; n = nodeNext[n]) {
+                    final int h = nodeHandle[n];
+                    if (marks[h] != stamp) {
+                        marks[h] = stamp;
+                        if (overlaps(h, x0, y0, x1, y1)) {
+                            visitor.visit(h);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visit every other item whose box overlaps the box of the item with
+     * the given handle. Each item is visited only once.
+     *
+     * @param handle
+     * @param visitor
+     */
+    public synchronized void queryAround(int handle, Visitor visitor) {
+        nextStamp();
+        marks[handle] = stamp;
+        final double x0 = minX[handle];
+        final double y0 = minY[handle];
+        final double x1 = maxX[handle];
+        final double y1 = maxY[handle];
+        if (largeSlot[handle] != NONE) {
+            // A large item is not listed in its cells
+            visitRange(x0, y0, x1, y1, visitor);
+            return;
+        }
+        visitLarge(x0, y0, x1, y1, visitor);
+        for (int n = firstNode[handle]; n != NONE; n = nodeSibling[n]) {
+            for (int m = cellHeads[nodeCell[n]]; m != NONE; m = nodeNext[m]) {
+                final int h = nodeHandle[m];
+                if (marks[h] != stamp) {
+                    marks[h] = stamp;
+                    if (overlaps(h, x0, y0, x1, y1)) {
+                        visitor.visit(h);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Draw the outline of every cell that holds an item. For debugging.
+     *
+     * @param g
+     */
+    public void draw(Graphics g) {
+        g.setColor(Color.magenta);
+        final float s = (float) cellSize;
+        for (int c = 0; c < cellCount; c++) {
+            if (cellHeads[c] != NONE) {
+                final int cx = (int) (cellKeys[c] >> 32);
+                final int cy = (int) cellKeys[c];
+                g.drawRect(cx * s, cy * s, s, s);
+            }
+        }
+    }
+
+    /**
+     * Visit every large item whose box overlaps the given bounds and that
+     * has not been marked with the current stamp yet.
+     *
+     * @param x0
+     * @param y0
+     * @param x1
+     * @param y1
+     * @param visitor
+     */
+    private void visitLarge(double x0, double y0, double x1, double y1, Visitor visitor) {
+        for (int i = 0; i < largeCount; i++) {
+            final int h = large[i];
+            if (marks[h] != stamp) {
+                marks[h] = stamp;
+                if (overlaps(h, x0, y0, x1, y1)) {
+                    visitor.visit(h);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of cells in a range of cells.
+     *
+     * @param cx0
+     * @param cy0
+     * @param cx1
+     * @param cy1
+     * @return
+     */
+    private static long span(int cx0, int cy0, int cx1, int cy1) {
+        return ((long) cx1 - cx0 + 1) * ((long) cy1 - cy0 + 1);
+    }
+
+    private boolean overlaps(int h, double x0, double y0, double x1, double y1) {
+        return minX[h] <= x1 && maxX[h] >= x0 && minY[h] <= y1 && maxY[h] >= y0;
+    }
+
+    private void nextStamp() {
+        stamp++;
+        if (stamp == 0) {
+            Arrays.fill(marks, 0);
+            stamp = 1;
+        }
+    }
+
+    private void setBounds(int handle, double x0, double y0, double x1, double y1) {
+        minX[handle] = x0;
+        minY[handle] = y0;
+        maxX[handle] = x1;
+        maxY[handle] = y1;
+        cellX0[handle] = cell(x0);
+        cellY0[handle] = cell(y0);
+        cellX1[handle] = cell(x1);
+        cellY1[handle] = cell(y1);
+    }
+
+    private int cell(double v) {
+        final double c = Math.floor(v / cellSize);
+        return (int) Math.max(-MAX_CELL, Math.min(MAX_CELL, c));
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * List an item in all the cells covered by its box, or in the list of
+     * large items if it covers too many cells.
+     *
+     * @param handle
+     */
+    private void link(int handle) {
+        if (span(cellX0[handle], cellY0[handle], cellX1[handle], cellY1[handle]) > MAX_LINKED_CELLS) {
+            if (largeCount == large.length) {
+                large = Arrays.copyOf(large, largeCount * 2);
+            }
+            largeSlot[handle] = largeCount;
+            large[largeCount++] = handle;
+            return;
+        }
+        for (int cy = cellY0[handle]; cy <= cellY1[handle]; cy++) {
+            for (int cx = cellX0[handle]; cx <= cellX1[handle]; cx++) {
+                final int c = getCell(key(cx, cy));
+                final int n = newNode();
+                nodeHandle[n] = handle;
+                nodeCell[n] = c;
+                nodePrev[n] = NONE;
+                nodeNext[n] = cellHeads[c];
+                if (cellHeads[c] != NONE) {
+                    nodePrev[cellHeads[c]] = n;
+                }
+                cellHeads[c] = n;
+                nodeSibling[n] = firstNode[handle];
+                firstNode[handle] = n;
+            }
+        }
+    }
+
+    /**
+     * Remove an item from all of its cells and return its nodes to the
+     * pool, or from the list of large items.
+     *
+     * @param handle
+     */
+    private void unlink(int handle) {
+        final int slot = largeSlot[handle];
+        if (slot != NONE) {
+            // Move the last large item into the freed slot
+            final int last = large[--largeCount];
+            large[slot] = last;
+            largeSlot[last] = slot;
+            largeSlot[handle] = NONE;
+            return;
+        }
+        int n = firstNode[handle];
+        while (n != NONE) {
+            final int sibling = nodeSibling[n];
+            if (nodePrev[n] != NONE) {
+                nodeNext[nodePrev[n]] = nodeNext[n];
+            } else {
+                cellHeads[nodeCell[n]] = nodeNext[n];
+            }
+            if (nodeNext[n] != NONE) {
+                nodePrev[nodeNext[n]] = nodePrev[n];
+            }
+            nodeNext[n] = freeNode;
+            freeNode = n;
+            n = sibling;
+        }
+        firstNode[handle] = NONE;
+    }
+
+    private int newNode() {
+        if (freeNode != NONE) {
+            final int n = freeNode;
+            freeNode = nodeNext[n];
+            return n;
+        }
+        if (nodeCount == nodeHandle.length) {
+            final int capacity = nodeCount * 2;
+            nodeHandle = Arrays.copyOf(nodeHandle, capacity);
+            nodeCell = Arrays.copyOf(nodeCell, capacity);
+            nodeNext = Arrays.copyOf(nodeNext, capacity);
+            nodePrev = Arrays.copyOf(nodePrev, capacity);
+            nodeSibling = Arrays.copyOf(nodeSibling, capacity);
+        }
+        return nodeCount++;
+    }
+
+    /**
+     * Find the id of the cell with the given key.
+     *
+     * @param key
+     * @return the cell id, or {@code -1} if the cell has never been used
+     */
+    private int findCell(long key) {
+        final int mask = table.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            final int entry = table[i];
+            if (entry == 0) {
+                return NONE;
+            }
+            if (cellKeys[entry - 1] == key) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Find the id of the cell with the given key, creating the cell if it
+     * has never been used.
+     *
+     * @param key
+     * @return the cell id
+     */
+    private int getCell(long key) {
+        final int found = findCell(key);
+        if (found != NONE) {
+            return found;
+        }
+        if (cellCount == cellKeys.length) {
+            final int capacity = cellCount * 2;
+            cellKeys = Arrays.copyOf(cellKeys, capacity);
+            cellHeads = Arrays.copyOf(cellHeads, capacity);
+        }
+        final int c = cellCount++;
+        cellKeys[c] = key;
+        cellHeads[c] = NONE;
+        if (cellCount * 2 > table.length) {
+            table = new int[table.length * 2];
+            for (int i = 0; i < cellCount; i++) {
+                place(i);
+            }
+        } else {
+            place(c);
+        }
+        return c;
+    }
+
+    private void place(int c) {
+        final int mask = table.length - 1;
+        int i = hash(cellKeys[c]) & mask;
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        table[i] = c + 1;
+    }
+
+    private void growHandles() {
+        final int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        cellX0 = Arrays.copyOf(cellX0, capacity);
+        cellY0 = Arrays.copyOf(cellY0, capacity);
+        cellX1 = Arrays.copyOf(cellX1, capacity);
+        cellY1 = Arrays.copyOf(cellY1, capacity);
+        firstNode = Arrays.copyOf(firstNode, capacity);
+        marks = Arrays.copyOf(marks, capacity);
+        largeSlot = Arrays.copyOf(largeSlot, capacity);
+    }
+
+}
@@ -1,7 +1,5 @@
 package kawaiiklash;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import static kawaiiklash.Direction.LEFT;
 import static kawaiiklash.Direction.RIGHT;
 import org.newdawn.slick.Graphics;
@@ -35,28 +33,7 @@ public class Spawner extends Reactor implements Drawable {
      * @return an instance of the {@code Monster}
      */
     public static Monster createMonsterInstance(String name, Game game) {
-        Package[] packages = Package.getPackages();
-        Class<?> cls = null;
-        Constructor<?> ctor = null;
-        Monster instance = null;
-        for (Package p : packages) {
-            String attempt = p.getName() + "." + name;
-            try {
-                cls = Class.forName(attempt);
-                ctor = cls.getConstructor(Game.class);
-            } catch (ClassNotFoundException | NoSuchMethodException | SecurityException ex) {
-                continue;
-            }
-            break;
-        }
-        if (cls != null && ctor != null) {
-            try {
-                instance = (Monster) ctor.newInstance(game);
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-                instance = null;
-            }
-        }
-        return instance;
+        return ElementRegistry.get().create(name, Monster.class, game);
     }
 
     /**
@@ -235,7 +212,6 @@ public class Spawner extends Reactor implements Drawable {
     private boolean inBounds() {
         Game game = getGame();
         Rect screen = game.getScreen();
-        Rect bounds = new Rect(0.0, 0.0, screen.getWidth(), screen.getHeight());
         double sx = x + sprite.getOffsetX();
         double sy = y + sprite.getOffsetY();
         if (upsidedown) {
@@ -244,7 +220,7 @@ public class Spawner extends Reactor implements Drawable {
         if (dir == Direction.RIGHT) {
             sx += 32;
         }
-        return sx > 0 && sx < bounds.getWidth() && sy < bounds.getHeight();
+        return sx > screen.getMinX() && sx < screen.getMaxX() && sy < screen.getMaxY();
     }
 
     /**
@@ -50,7 +50,7 @@ public interface Sprite {
     }
 
     default void draw(float x, float y, float width, float height, Color filter) {
-        getImage().draw(x, y, width, height, filter);
+        SpriteBatch.drawImage(getImage(), x, y, width, height, filter);
     }
 
     Sprite flipHorizontal();
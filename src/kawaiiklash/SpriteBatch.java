@@ -0,0 +1,281 @@
+package kawaiiklash;
+
+import java.util.Arrays;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.Image;
+
+/**
+ * The {@code SpriteBatch} collects the sprites drawn during a frame and
+ * draws them together at the end of it. Drawing each sprite on its own
+ * binds its texture and starts and ends a batch of quads in OpenGL, so
+ * instead, the sprites are sorted by their {@code Drawable} z value and
+ * then by texture, and all the sprites that share a texture are drawn
+ * between one {@code startUse()} and {@code endUse()}.
+ * <p>
+ * Sprites in the layers whose order matters, the backgrounds, the
+ * foregrounds and the HUD, are kept in the order they were drawn in, so
+ * only neighbouring sprites that share a texture are drawn together.
+ * Rotated images are drawn on their own, in their place in the order,
+ * since they cannot be drawn as part of a batch of quads.
+ * <p>
+ * While the batch is open, {@link Sprite} draws go to it rather than to
+ * the screen. The game opens it for each frame, and sets the z value and
+ * the translation of each {@code Drawable} before drawing it. Anything
+ * that is drawn straight to the {@code Graphics} is drawn right away, under
+ * the batch, so the batch is left closed in debugging mode. The batch may
+ * only be used from the main thread.
+ *
+ * @author Jeff Niu
+ */
+public class SpriteBatch {
+
+    /**
+     * The single instance of this class.
+     */
+    private static SpriteBatch batch;
+
+    /**
+     * Get the single instance of this class.
+     *
+     * @return
+     */
+    public static SpriteBatch get() {
+        if (batch == null) {
+            batch = new SpriteBatch();
+        }
+        return batch;
+    }
+
+    /**
+     * Draw an image, to the batch if it is open, or else straight to the
+     * screen.
+     *
+     * @param img
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     * @param filter
+     */
+    public static void drawImage(Image img, float x, float y, float width, float height, Color filter) {
+        final SpriteBatch b = get();
+        if (b.open) {
+            b.draw(img, x, y, width, height, filter);
+        } else if (b.tint != null && !b.tint.isClear()) {
+            final Color c = filter != null ? filter : Color.white;
+            b.filter.r = c.r * b.tint.getRed();
+            b.filter.g = c.g * b.tint.getGreen();
+            b.filter.b = c.b * b.tint.getBlue();
+            b.filter.a = c.a * b.tint.getAlpha();
+            img.draw(x, y, width, height, b.filter);
+        } else {
+            img.draw(x, y, width, height, filter);
+        }
+    }
+
+    /**
+     * The lowest z value, and the number of bits of the sort key used for
+     * the texture and for the draw order.
+     */
+    private static final int MIN_Z = Drawable.BACKGROUND;
+    private static final int GROUP_BITS = 28;
+    private static final int ORDER_BITS = 24;
+    private static final long ORDER_MASK = (1L << ORDER_BITS) - 1;
+
+    /**
+     * Whether the batch is open.
+     */
+    private boolean open;
+
+    /**
+     * The z value and the translation of the {@code Drawable} that is
+     * being drawn.
+     */
+    private int z;
+    private float translateX;
+    private float translateY;
+
+    /**
+     * The tint of the {@code Drawable} that is being drawn, or null if it
+     * has none.
+     */
+    private Tint tint;
+
+    /**
+     * The sprites that have been drawn, by the order they were drawn in.
+     */
+    private Image[] images;
+    private float[] bounds;
+    private float[] colors;
+    private long[] keys;
+    private int count;
+
+    /**
+     * The color that each sprite is drawn with.
+     */
+    private final Color filter;
+
+    private SpriteBatch() {
+        images = new Image[256];
+        bounds = new float[256 * 4];
+        colors = new float[256 * 4];
+        keys = new long[256];
+        filter = new Color(1.0f, 1.0f, 1.0f, 1.0f);
+    }
+
+    /**
+     * Open the batch for a new frame.
+     */
+    public void begin() {
+        open = true;
+        count = 0;
+        z = Drawable.OTHER;
+        translateX = 0.0f;
+        translateY = 0.0f;
+    }
+
+    /**
+     * Check whether the batch is open, so that the sprites should be
+     * drawn to it.
+     *
+     * @return
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Set the z value and the translation of the {@code Drawable} that is
+     * about to be drawn.
+     *
+     * @param z
+     * @param tx
+     * @param ty
+     */
+    public void setLayer(int z, double tx, double ty) {
+        this.z = z;
+        translateX = (float) tx;
+        translateY = (float) ty;
+    }
+
+    /**
+     * Set the tint of the {@code Drawable} that is about to be drawn. The
+     * tint is applied whether or not the batch is open.
+     *
+     * @param tint the tint, or null for none
+     */
+    public void setTint(Tint tint) {
+        this.tint = tint;
+    }
+
+    /**
+     * Add an image to the batch.
+     *
+     * @param img
+     * @param x
+     * @param y
+     * @param width
+     * @param height
+     * @param color the filter, or null for none
+     */
+    public void draw(Image img, float x, float y, float width, float height, Color color) {
+        if (count > ORDER_MASK) {
+            flush();
+        }
+        if (count == images.length) {
+            grow();
+        }
+        final int n = count++;
+        images[n] = img;
+        bounds[4 * n] = x + translateX;
+        bounds[4 * n + 1] = y + translateY;
+        bounds[4 * n + 2] = width;
+        bounds[4 * n + 3] = height;
+        final Color c = color != null ? color : Color.white;
+        colors[4 * n] = c.r;
+        colors[4 * n + 1] = c.g;
+        colors[4 * n + 2] = c.b;
+        colors[4 * n + 3] = c.a * img.getAlpha();
+        if (tint != null) {
+            colors[4 * n] *= tint.getRed();
+            colors[4 * n + 1] *= tint.getGreen();
+            colors[4 * n + 2] *= tint.getBlue();
+            colors[4 * n + 3] *= tint.getAlpha();
+        }
+        long group = 0;
+        if (isSortable(z) && img.getRotation() == 0 && img.getTexture() != null) {
+            group = img.getTexture().getTextureID() & ((1L << GROUP_BITS) - 1);
+        }
+        keys[n] = ((long) (z - MIN_Z) << (GROUP_BITS + ORDER_BITS)) | (group << ORDER_BITS) | n;
+    }
+
+    /**
+     * Draw everything in the batch and close it.
+     */
+    public void end() {
+        flush();
+        open = false;
+        tint = null;
+    }
+
+    /**
+     * Check whether the sprites in a layer may be drawn out of order.
+     *
+     * @param z
+     * @return
+     */
+    private static boolean isSortable(int z) {
+        return z != Drawable.BACKGROUND && z != Drawable.FOREGROUND && z != Drawable.HUD;
+    }
+
+    /**
+     * Draw the sprites in the batch, in the order of their keys.
+     */
+    private void flush() {
+        Arrays.sort(keys, 0, count);
+        Image inUse = null;
+        for (int k = 0; k < count; k++) {
+            final int n = (int) (keys[k] & ORDER_MASK);
+            final Image img = images[n];
+            filter.r = colors[4 * n];
+            filter.g = colors[4 * n + 1];
+            filter.b = colors[4 * n + 2];
+            filter.a = colors[4 * n + 3];
+            final float x = bounds[4 * n];
+            final float y = bounds[4 * n + 1];
+            final float w = bounds[4 * n + 2];
+            final float h = bounds[4 * n + 3];
+            if (img.getRotation() != 0) {
+                if (inUse != null) {
+                    inUse.endUse();
+                    inUse = null;
+                }
+                img.draw(x, y, w, h, filter);
+                continue;
+            }
+            if (inUse == null || inUse.getTexture() != img.getTexture()) {
+                if (inUse != null) {
+                    inUse.endUse();
+                }
+                img.startUse();
+                inUse = img;
+            }
+            filter.bind();
+            img.drawEmbedded(x, y, w, h);
+        }
+        if (inUse != null) {
+            inUse.endUse();
+        }
+        Arrays.fill(images, 0, count, null);
+        count = 0;
+    }
+
+    private void grow() {
+        final int capacity = images.length * 2;
+        images = Arrays.copyOf(images, capacity);
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        colors = Arrays.copyOf(colors, capacity * 4);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+}
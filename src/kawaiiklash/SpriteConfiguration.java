@@ -29,6 +29,34 @@ public class SpriteConfiguration {
     // The reference for the Image representing the Sprite
     private String image;
 
+    // The name of the sheet, which is worked out from the image once
+    private String sheetName;
+
+    /**
+     * Create an empty SpriteConfiguration, to be filled in from the
+     * attributes of a data.xml entry.
+     */
+    public SpriteConfiguration() {
+    }
+
+    /**
+     * Create a SpriteConfiguration from the values stored in the compiled
+     * sprite manifest.
+     *
+     * @param image the image reference
+     * @param sheetName the sheet name
+     * @param delay the animation delay
+     * @param offsetX the x-direction offset
+     * @param offsetY the y-direction offset
+     */
+    public SpriteConfiguration(String image, String sheetName, int delay, int offsetX, int offsetY) {
+        this.image = image;
+        this.sheetName = sheetName;
+        this.delay = delay;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+    }
+
     /**
      * Get the offset in the y-direction.
      *
@@ -99,6 +127,7 @@ public class SpriteConfiguration {
      */
     public void setImage(String image) {
         this.image = image;
+        sheetName = null;
     }
 
     /**
@@ -108,10 +137,11 @@ public class SpriteConfiguration {
      * @return the sheet name
      */
     public String getSheetName() {
-        String sheetName;
-        try (Scanner referenceName = new Scanner(this.image)) {
-            referenceName.useDelimiter("_");
-            sheetName = referenceName.next();
+        if (sheetName == null) {
+            try (Scanner referenceName = new Scanner(this.image)) {
+                referenceName.useDelimiter("_");
+                sheetName = referenceName.next();
+            }
         }
         return sheetName;
     }
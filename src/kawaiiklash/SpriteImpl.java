@@ -6,6 +6,13 @@ import org.newdawn.slick.Image;
 
 /**
  * The {@code Sprite} implementation.
+ * <p>
+ * A sprite and its flipped versions form a family of up to four sprites,
+ * one for each orientation. A flipped version is only created the first
+ * time it is asked for, and then kept, so flipping a sprite every frame
+ * does not create anything. The flipped images come from the
+ * {@code Mirrors} of the sprite sheet, so they are shared by every copy of
+ * the sheet. The flipped versions of a sprite draw with its filter.
  *
  * @author Jeff Niu
  */
@@ -17,18 +24,79 @@ public class SpriteImpl implements Sprite {
     private final Image img;
 
     /**
-     * The color filter of the sprite.
+     * The color filter of the sprite. Only the unflipped sprite of a
+     * family uses its own filter.
      */
     private Color filter;
 
+    /**
+     * The images of the frame in each orientation.
+     */
+    private final SpriteSheetImpl.Mirrors mirrors;
+    /**
+     * The frame of the sprite in the mirrors.
+     */
+    private final int frame;
+    /**
+     * The orientation of the sprite, made of the {@code Mirrors} flags.
+     */
+    private final int orientation;
+    /**
+     * The sprites of the family, by orientation. The unflipped sprite is
+     * always first.
+     */
+    private final SpriteImpl[] family;
+
     /**
      * Create the sprite based on an image.
      *
      * @param img
      */
     public SpriteImpl(Image img) {
-        this.img = img.copy();
+        this(new SpriteSheetImpl.Mirrors(new Image[]{img}), 0);
+    }
+
+    /**
+     * Create the sprite for a frame of a sprite sheet.
+     *
+     * @param mirrors the images of the sprite sheet
+     * @param frame
+     */
+    SpriteImpl(SpriteSheetImpl.Mirrors mirrors, int frame) {
+        this.mirrors = mirrors;
+        this.frame = frame;
+        img = mirrors.get(SpriteSheetImpl.Mirrors.NONE, frame).copy();
         filter = Color.white;
+        orientation = SpriteSheetImpl.Mirrors.NONE;
+        family = new SpriteImpl[SpriteSheetImpl.Mirrors.ORIENTATIONS];
+        family[orientation] = this;
+    }
+
+    /**
+     * Create a flipped version of a sprite.
+     *
+     * @param base the unflipped sprite
+     * @param orientation
+     */
+    private SpriteImpl(SpriteImpl base, int orientation) {
+        mirrors = base.mirrors;
+        frame = base.frame;
+        img = mirrors.get(orientation, frame);
+        this.orientation = orientation;
+        family = base.family;
+        family[orientation] = this;
+    }
+
+    /**
+     * Get the sprite of the family that is flipped from this one.
+     *
+     * @param flip the {@code Mirrors} flags to flip
+     * @return
+     */
+    private Sprite flip(int flip) {
+        final int o = orientation ^ flip;
+        final SpriteImpl flipped = family[o];
+        return flipped != null ? flipped : new SpriteImpl(family[SpriteSheetImpl.Mirrors.NONE], o);
     }
 
     /**
@@ -73,26 +141,24 @@ public class SpriteImpl implements Sprite {
 
     /**
      * Return a version of the sprite that has been flipped horizontally.
+     * The same instance is returned every time.
      *
      * @return
      */
     @Override
     public Sprite flipHorizontal() {
-        Sprite flipped = new SpriteImpl(img.getFlippedCopy(true, false));
-        flipped.setFilter(filter);
-        return flipped;
+        return flip(SpriteSheetImpl.Mirrors.HORIZONTAL);
     }
 
     /**
-     * Flip the sprite vertically and return a new instance.
+     * Return a version of the sprite that has been flipped vertically.
+     * The same instance is returned every time.
      *
      * @return
      */
     @Override
     public Sprite flipVertical() {
-        Sprite flipped = new SpriteImpl(img.getFlippedCopy(false, true));
-        flipped.setFilter(filter);
-        return flipped;
+        return flip(SpriteSheetImpl.Mirrors.VERTICAL);
     }
 
     /**
@@ -112,7 +178,7 @@ public class SpriteImpl implements Sprite {
      */
     @Override
     public void setFilter(Color filter) {
-        this.filter = filter;
+        family[SpriteSheetImpl.Mirrors.NONE].filter = filter;
     }
 
     /**
@@ -122,7 +188,7 @@ public class SpriteImpl implements Sprite {
      */
     @Override
     public Color getFilter() {
-        return filter;
+        return family[SpriteSheetImpl.Mirrors.NONE].filter;
     }
 
 }
@@ -141,14 +141,20 @@ public class SpriteLoader {
 
     /**
      * A method that loads an image based on a reference using the
-     * Slick2D's image capabilities.
+     * Slick2D's image capabilities. Frames that were packed into the
+     * {@link TextureAtlas} are taken from their atlas page instead, so
+     * that they share its texture.
      *
      * @param ref
      * @return
      */
     private Image loadImage(String ref) {
+        final Image frame = TextureAtlas.get().getFrame(ref);
+        if (frame != null) {
+            return frame;
+        }
         try {
-            return new Image(ref);
+            return AssetPreloader.get().newImage(ref);
         } catch (SlickException ex) {
             return null;
         }
@@ -156,12 +162,14 @@ public class SpriteLoader {
 
     /**
      * Given the reference for a sprite sheet data file, load all the
-     * sprite sheet associated with it.
+     * sprite sheet associated with it. Images can only be created on the
+     * main thread, so other threads may only load sprites that are already
+     * cached.
      *
      * @param ref
      * @return
      */
-    public List<SpriteSheet> loadSprites(String ref) {
+    public synchronized List<SpriteSheet> loadSprites(String ref) {
         if (ref == null) {
             return null;
         }
@@ -0,0 +1,189 @@
+package kawaiiklash;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import static kawaiiklash.Utility.fail;
+
+/**
+ * The {@code SpriteManifest} reads the sprite data files from the binary
+ * manifest written by the {@link ManifestCompiler}. The manifest is
+ * memory-mapped when the game starts, and only the position of each data
+ * file is read then. The entries of a data file are read when it is first
+ * asked for, and the {@link Parser} caches them.
+ * <p>
+ * If the manifest has not been compiled, it is empty, and every data file
+ * is read from its {@code data.xml}, as before. The build compiles the
+ * manifest again before the resources are copied whenever a
+ * {@code data.xml} changes, so the manifest is not checked against the
+ * data files here, which would mean reading them all.
+ *
+ * @author Jeff Niu
+ */
+public class SpriteManifest {
+
+    /**
+     * The manifest file, relative to the resources.
+     */
+    public static final String FILE = "sprites/manifest.bin";
+
+    /**
+     * The first bytes of the manifest, "KKSM", and the version of its
+     * format.
+     */
+    public static final int MAGIC = 0x4B4B534D;
+    public static final int VERSION = 3;
+
+    /**
+     * The single instance of this class.
+     */
+    private static SpriteManifest manifest;
+
+    /**
+     * Get the single instance of this class.
+     *
+     * @return
+     */
+    public static SpriteManifest get() {
+        if (manifest == null) {
+            manifest = new SpriteManifest();
+        }
+        return manifest;
+    }
+
+    /**
+     * The contents of the manifest, or null if there is none.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The position in the manifest of each data file, by its reference.
+     */
+    private final HashMap<String, Integer> positions;
+
+    /**
+     * Map the manifest, if there is one, and index it.
+     */
+    private SpriteManifest() {
+        positions = new HashMap<>(200);
+        final URL url = getClass().getClassLoader().getResource(FILE);
+        buffer = url != null ? open(url) : null;
+        if (buffer != null) {
+            index();
+        }
+    }
+
+    /**
+     * Map the manifest into memory. A manifest inside a jar cannot be
+     * mapped, so it is read into memory instead.
+     *
+     * @param url
+     * @return
+     */
+    private static ByteBuffer open(URL url) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(new File(url.toURI()).toPath(), StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+            try (InputStream in = url.openStream()) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] chunk = new byte[8192];
+                int n;
+                while ((n = in.read(chunk)) != -1) {
+                    out.write(chunk, 0, n);
+                }
+                return ByteBuffer.wrap(out.toByteArray());
+            }
+        } catch (IOException | URISyntaxException ex) {
+            fail("Could not open the sprite manifest: " + url, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Find the position of each data file, skipping over its entries.
+     */
+    private void index() {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                fail("The sprite manifest is not valid, compile it again: " + FILE);
+                return;
+            }
+            final int files = buffer.getInt();
+            for (int f = 0; f < files; f++) {
+                final String ref = readString(buffer);
+                positions.put(ref, buffer.position());
+                final int frames = buffer.getInt();
+                for (int i = 0; i < frames; i++) {
+                    skipString(buffer);
+                    skipString(buffer);
+                    buffer.position(buffer.position() + 3 * Integer.BYTES);
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            positions.clear();
+            fail("The sprite manifest is cut short, compile it again: " + FILE, ex);
+        }
+    }
+
+    /**
+     * Check whether a data file was compiled into the manifest.
+     *
+     * @param ref the reference of the data file
+     * @return
+     */
+    public boolean contains(String ref) {
+        return positions.containsKey(ref);
+    }
+
+    /**
+     * Read the entries of a data file from the manifest.
+     *
+     * @param ref the reference of the data file
+     * @return the entries, or null if the data file is not in the manifest
+     */
+    public List<SpriteConfiguration> read(String ref) {
+        final Integer position = positions.get(ref);
+        if (position == null) {
+            return null;
+        }
+        final ByteBuffer in = buffer.duplicate();
+        in.position(position);
+        final int frames = in.getInt();
+        final List<SpriteConfiguration> configs = new ArrayList<>(frames);
+        for (int i = 0; i < frames; i++) {
+            final String image = readString(in);
+            final String sheetName = readString(in);
+            final int delay = in.getInt();
+            final int offsetX = in.getInt();
+            final int offsetY = in.getInt();
+            configs.add(new SpriteConfiguration(image, sheetName, delay, offsetX, offsetY));
+        }
+        return configs;
+    }
+
+    private static String readString(ByteBuffer in) {
+        final byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer in) {
+        final int length = in.getShort() & 0xFFFF;
+        in.position(in.position() + length);
+    }
+
+}
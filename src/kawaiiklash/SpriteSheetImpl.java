@@ -13,6 +13,63 @@ import org.newdawn.slick.Image;
  */
 public class SpriteSheetImpl implements SpriteSheet {
 
+    /**
+     * The images of the frames of a sprite sheet in each orientation. The
+     * flipped images are only made the first time they are needed. Since
+     * every copy of a sprite sheet shares its {@code Mirrors}, the flipped
+     * images are made once for each sprite sheet that is loaded, and not
+     * once for each {@code Entity} or for each frame drawn.
+     */
+    static final class Mirrors {
+
+        /**
+         * The orientation flags.
+         */
+        static final int NONE = 0;
+        static final int HORIZONTAL = 1;
+        static final int VERTICAL = 2;
+        static final int ORIENTATIONS = 4;
+
+        /**
+         * The images, by orientation and then by frame.
+         */
+        private final Image[][] imgs;
+
+        Mirrors(Image[] imgs) {
+            this.imgs = new Image[ORIENTATIONS][];
+            this.imgs[NONE] = imgs;
+        }
+
+        /**
+         * Get the unflipped images.
+         *
+         * @return
+         */
+        Image[] frames() {
+            return imgs[NONE];
+        }
+
+        /**
+         * Get the image of a frame in the given orientation.
+         *
+         * @param orientation
+         * @param frame
+         * @return
+         */
+        synchronized Image get(int orientation, int frame) {
+            Image[] set = imgs[orientation];
+            if (set == null) {
+                set = new Image[imgs[NONE].length];
+                imgs[orientation] = set;
+            }
+            if (set[frame] == null) {
+                set[frame] = imgs[NONE][frame].getFlippedCopy((orientation & HORIZONTAL) != 0, (orientation & VERTICAL) != 0);
+            }
+            return set[frame];
+        }
+
+    }
+
     /**
      * The name of the sprite sheet.
      */
@@ -22,6 +79,10 @@ public class SpriteSheetImpl implements SpriteSheet {
      * All the images of the sprite sheet.
      */
     private final Image[] imgs;
+    /**
+     * The images in each orientation, shared with every copy.
+     */
+    private final Mirrors mirrors;
     /**
      * All the sprites of the sprite sheet.
      */
@@ -72,8 +133,23 @@ public class SpriteSheetImpl implements SpriteSheet {
      * @param name
      */
     public SpriteSheetImpl(Image[] imgs, int[] delays, int[] xOffsets, int[] yOffsets, String name) {
+        this(new Mirrors(imgs), delays, xOffsets, yOffsets, name);
+    }
+
+    /**
+     * Create a copy of a sprite sheet that shares its images.
+     *
+     * @param mirrors
+     * @param delays
+     * @param xOffsets
+     * @param yOffsets
+     * @param name
+     */
+    private SpriteSheetImpl(Mirrors mirrors, int[] delays, int[] xOffsets, int[] yOffsets, String name) {
+        final Image[] imgs = mirrors.frames();
         this.name = name;
         this.imgs = imgs;
+        this.mirrors = mirrors;
         this.xOffsets = xOffsets;
         this.yOffsets = yOffsets;
         this.delays = delays;
@@ -81,7 +157,7 @@ public class SpriteSheetImpl implements SpriteSheet {
         widths = new int[imgs.length];
         heights = new int[imgs.length];
         for (int n = 0; n < sprites.length; n++) {
-            sprites[n] = new SpriteImpl(imgs[n]);
+            sprites[n] = new SpriteImpl(mirrors, n);
             widths[n] = imgs[n].getWidth();
             heights[n] = imgs[n].getHeight();
         }
@@ -161,7 +237,7 @@ public class SpriteSheetImpl implements SpriteSheet {
 
     @Override
     public SpriteSheet copy() {
-        return new SpriteSheetImpl(imgs, arraycopy(delays), arraycopy(xOffsets), arraycopy(yOffsets), name);
+        return new SpriteSheetImpl(mirrors, arraycopy(delays), arraycopy(xOffsets), arraycopy(yOffsets), name);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package kawaiiklash;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.newdawn.slick.Graphics;
 
@@ -139,13 +140,13 @@ public class StoneGolem extends Walker implements PlatformWalker {
     }
 
     @Override
-    public Rect getHitbox() {
+    protected void updateHitbox(Hitbox box) {
         final SpriteSheet ss = getSprites().get(HITBOX);
         final double bx = getX() + ss.getOffsetX();
         final double by = getY() + ss.getOffsetY();
         final double bw = ss.getWidth();
         final double bh = ss.getHeight();
-        return new Rect(bx, by, bw, bh);
+        box.set(bx, by, bw, bh);
     }
 
     @Override
@@ -176,6 +177,12 @@ public class StoneGolem extends Walker implements PlatformWalker {
     
     private class StoneGolemScanner implements Scanner {
 
+        /**
+         * The list that the objects in the scan area are put into, which
+         * is reused for every scan.
+         */
+        private final List<Object> scanObjects = new ArrayList<>(0);
+
         @Override
         public ScannerImpl<?, ?> getScanner() {
             return new ScannerImpl<>(Player.class, Platform.class);
@@ -183,7 +190,7 @@ public class StoneGolem extends Walker implements PlatformWalker {
 
         @Override
         public List<Object> getScanObjects() {
-            return getGame().getObjects();
+            return getGame().getObjects(getScanArea(), scanObjects);
         }
 
         @Override
@@ -0,0 +1,136 @@
+package kawaiiklash;
+
+/**
+ * A {@code BroadPhase} that sorts the hitboxes of all the objects along
+ * the x-axis and then sweeps across them, keeping a list of the hitboxes
+ * that are still open. A pair is only a candidate if the two hitboxes
+ * overlap on the x-axis and then also on the y-axis. The arrays used are
+ * kept between calls so that a steady game does not allocate anything.
+ *
+ * @author Jeff Niu
+ */
+public class SweepAndPrune implements BroadPhase {
+
+    /**
+     * The hitbox bounds of each object, by index in the given array.
+     */
+    private double[] minX;
+    private double[] maxX;
+    private double[] minY;
+    private double[] maxY;
+    /**
+     * The indices of the objects sorted by the left side of their hitbox.
+     */
+    private int[] order;
+    /**
+     * The indices of the objects whose hitboxes are open at the current
+     * point of the sweep.
+     */
+    private int[] active;
+
+    public SweepAndPrune() {
+        ensureCapacity(16);
+    }
+
+    @Override
+    public void findPairs(Collideable[] cols, int count, PairHandler handler) {
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            final Rect box = cols[i].getHitbox();
+            minX[i] = box.getMinX();
+            maxX[i] = box.getMaxX();
+            minY[i] = box.getMinY();
+            maxY[i] = box.getMaxY();
+            order[i] = i;
+        }
+        sort(0, count - 1);
+
+        int open = 0;
+        for (int n = 0; n < count; n++) {
+            final int i = order[n];
+            // Close every hitbox that ends before this one starts
+            int kept = 0;
+            for (int k = 0; k < open; k++) {
+                final int j = active[k];
+                if (maxX[j] >= minX[i]) {
+                    active[kept++] = j;
+                    if (maxY[j] >= minY[i] && minY[j] <= maxY[i]) {
+                        if (j < i) {
+                            handler.handle(cols[j], cols[i]);
+                        } else {
+                            handler.handle(cols[i], cols[j]);
+                        }
+                    }
+                }
+            }
+            open = kept;
+            active[open++] = i;
+        }
+    }
+
+    /**
+     * Make sure that the arrays can hold the given number of objects.
+     *
+     * @param count
+     */
+    private void ensureCapacity(int count) {
+        if (order != null && order.length >= count) {
+            return;
+        }
+        final int capacity = Math.max(count, order == null ? 0 : order.length * 2);
+        minX = new double[capacity];
+        maxX = new double[capacity];
+        minY = new double[capacity];
+        maxY = new double[capacity];
+        order = new int[capacity];
+        active = new int[capacity];
+    }
+
+    /**
+     * Sort the order array by the left side of each hitbox. Small ranges
+     * are insertion sorted.
+     *
+     * @param low
+     * @param high
+     */
+    private void sort(int low, int high) {
+        while (high - low > 16) {
+            final double pivot = minX[order[low + (high - low) / 2]];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (minX[order[i]] < pivot) {
+                    i++;
+                }
+                while (minX[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int temp = order[i];
+                    order[i] = order[j];
+                    order[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            final int index = order[i];
+            final double key = minX[index];
+            int j = i - 1;
+            while (j >= low && minX[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+}
@@ -1,15 +1,18 @@
 package kawaiiklash;
 
-import java.awt.Toolkit;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import static kawaiiklash.Direction.DOWN;
 import static kawaiiklash.Direction.LEFT;
 import static kawaiiklash.Direction.NONE;
 import static kawaiiklash.Direction.RIGHT;
 import static kawaiiklash.Direction.UP;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import static kawaiiklash.Utility.fail;
 import org.newdawn.slick.Graphics;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
 
 /**
  * A {@code Tessel} is a wrapper class for {@code Tile} to create a
@@ -21,8 +24,67 @@ import org.newdawn.slick.Graphics;
  */
 public class Tessel implements Updateable, Drawable, Platform {
 
-    private static final Rect screen = new Rect(new Vector(), Toolkit.getDefaultToolkit().getScreenSize());
-    private static final Dimensions border = new Dimensions(Toolkit.getDefaultToolkit().getScreenSize());
+    /**
+     * The largest width or height of a baked block, in pixels, which
+     * keeps the blocks within the texture size of any graphics card.
+     */
+    private static final int MAX_BAKE = 2048;
+
+    /**
+     * A baked block of tiles, and how many tiles it holds across and
+     * down.
+     */
+    private static final class Block {
+
+        private final Image image;
+        private final int columns;
+        private final int rows;
+
+        private Block(Image image, int columns, int rows) {
+            this.image = image;
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+    }
+
+    /**
+     * The baked blocks, one for each tile, state and type, shared by every
+     * {@code Tessel} of that kind. Each {@code Tessel} draws parts of the
+     * block, so a block is only baked again, larger, when a
+     * {@code Tessel} needs more tiles than it holds. The blocks are
+     * destroyed when the level changes.
+     */
+    private static final Map<String, Block> BLOCKS = new HashMap<>();
+
+    /**
+     * The blocks that have been baked again larger, which are destroyed
+     * along with the others.
+     */
+    private static final List<Block> RETIRED = new ArrayList<>();
+
+    /**
+     * Destroy all the baked blocks. This is called when a level is
+     * loaded, and like any image, may only be done on the main thread.
+     */
+    public static void clearBlocks() {
+        for (Block block : BLOCKS.values()) {
+            destroy(block);
+        }
+        for (Block block : RETIRED) {
+            destroy(block);
+        }
+        BLOCKS.clear();
+        RETIRED.clear();
+    }
+
+    private static void destroy(Block block) {
+        try {
+            block.image.destroy();
+        } catch (SlickException ex) {
+            fail("Could not destroy a baked Tessel block", ex);
+        }
+    }
 
     /**
      * The {@code Game} to which the {@code Tessel} belongs.
@@ -71,6 +133,32 @@ public class Tessel implements Updateable, Drawable, Platform {
      */
     private int type;
 
+    /**
+     * The hitbox of the {@code Tessel}.
+     */
+    private final Hitbox hitbox;
+
+    /**
+     * The {@code Tessel} is drawn as a grid of baked blocks, each of
+     * which is an image of {@link #blockWidth} by {@link #blockHeight}
+     * tiles. The blocks on the right and bottom edges may be cut short,
+     * so there is an image for each kind of block: whole, cut on the
+     * right, cut on the bottom, and cut on both. Each one is a part of
+     * the shared {@link #baked} block. This is null until the
+     * {@code Tessel} is first drawn, or after it changes.
+     */
+    private Image[] blocks;
+    private int blockWidth;
+    private int blockHeight;
+
+    /**
+     * The shared block that the blocks are parts of, and its key. If the
+     * shared block is baked again or destroyed, the blocks are made
+     * again.
+     */
+    private Block baked;
+    private String bakeKey;
+
     /**
      * Create an empty {@code Tessel}.
      *
@@ -85,6 +173,7 @@ public class Tessel implements Updateable, Drawable, Platform {
         height = 1;
         state = 0;
         type = 0;
+        hitbox = new Hitbox();
     }
 
     /**
@@ -94,6 +183,8 @@ public class Tessel implements Updateable, Drawable, Platform {
      */
     public void setWidth(int width) {
         this.width = width;
+        hitbox.invalidate();
+        blocks = null;
     }
 
     /**
@@ -103,6 +194,8 @@ public class Tessel implements Updateable, Drawable, Platform {
      */
     public void setHeight(int height) {
         this.height = height;
+        hitbox.invalidate();
+        blocks = null;
     }
 
     /**
@@ -157,6 +250,7 @@ public class Tessel implements Updateable, Drawable, Platform {
             fail(String.format("Could not set state %d for Tile %s", state, tile), ex);
         }
         this.state = state;
+        blocks = null;
     }
 
     /**
@@ -166,6 +260,7 @@ public class Tessel implements Updateable, Drawable, Platform {
      */
     public void setType(int type) {
         this.type = type;
+        blocks = null;
     }
 
     /**
@@ -175,6 +270,8 @@ public class Tessel implements Updateable, Drawable, Platform {
      */
     public void setTile(String name) {
         this.tile = getTileInstance(name);
+        hitbox.invalidate();
+        blocks = null;
     }
 
     /**
@@ -184,28 +281,7 @@ public class Tessel implements Updateable, Drawable, Platform {
      * @return
      */
     public Tile getTileInstance(String name) {
-        Package[] packages = Package.getPackages();
-        Class<?> cls = null;
-        Constructor<?> ctor = null;
-        Tile instance = null;
-        for (Package p : packages) {
-            String attempt = p.getName() + "." + name;
-            try {
-                cls = Class.forName(attempt);
-                ctor = cls.getConstructor(Game.class);
-            } catch (ClassNotFoundException | NoSuchMethodException | SecurityException ex) {
-                continue;
-            }
-            break;
-        }
-        if (cls != null && ctor != null) {
-            try {
-                instance = (Tile) ctor.newInstance(game);
-            } catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-                instance = null;
-            }
-        }
-        return instance;
+        return ElementRegistry.get().create(name, Tile.class, game);
     }
 
     /**
@@ -248,42 +324,127 @@ public class Tessel implements Updateable, Drawable, Platform {
         return tile.getSprites().get(state).getHeight() * height;
     }
 
+    /**
+     * Draw the {@code Tessel}. Rather than drawing every tile, the
+     * {@code Tessel} draws the baked blocks that are on the screen, so a
+     * {@code Tessel} that fits in one block is a single draw.
+     *
+     * @param g
+     */
     @Override
     @SuppressWarnings("LocalVariableHidesMemberVariable")
     public void draw(Graphics g) {
         if (inBounds) {
-            tile.setState(state);
-            tile.setType(type);
+            if (blocks == null || BLOCKS.get(bakeKey) != baked) {
+                bake();
+            }
             SpriteSheet ss = tile.getSprites().get(state);
             double tileWidth = ss.getWidth(type);
             double tileHeight = ss.getHeight(type);
             double x = this.x + ss.getOffsetX(type);
             double y = this.y + ss.getOffsetY(type);
-            for (int w = 0; w < width; w++) {
-                for (int h = 0; h < height; h++) {
-                    double tx = x + tileWidth * w;
-                    double ty = y + tileHeight * h;
-                    if (pointInBounds(new Vector(tx, ty))) {
-                        Sprite s = ss.get(type);
-                        s.draw((float) tx, (float) ty);
+            final double blockW = tileWidth * blockWidth;
+            final double blockH = tileHeight * blockHeight;
+            final int columns = (width + blockWidth - 1) / blockWidth;
+            final int rows = (height + blockHeight - 1) / blockHeight;
+            // Only go through the blocks that can be on the screen
+            final Rect screen = game.getScreen();
+            final int c0 = Math.max(0, (int) Math.floor((screen.getMinX() - tileWidth - x) / blockW));
+            final int c1 = Math.min(columns, (int) Math.floor((screen.getMaxX() + tileWidth - x) / blockW) + 1);
+            final int r0 = Math.max(0, (int) Math.floor((screen.getMinY() - tileHeight - y) / blockH));
+            final int r1 = Math.min(rows, (int) Math.floor((screen.getMaxY() + tileHeight - y) / blockH) + 1);
+            final Sprite s = ss.get(type);
+            for (int c = c0; c < c1; c++) {
+                for (int r = r0; r < r1; r++) {
+                    final boolean right = c == columns - 1 && width % blockWidth != 0;
+                    final boolean bottom = r == rows - 1 && height % blockHeight != 0;
+                    final Image block = blocks[(right ? 1 : 0) + (bottom ? 2 : 0)];
+                    final float bx = (float) (x + blockW * c);
+                    final float by = (float) (y + blockH * r);
+                    SpriteBatch.drawImage(block, bx, by, block.getWidth(), block.getHeight(), s.getFilter());
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the blocks of the {@code Tessel}. They are parts of the block
+     * that is shared with the other {@code Tessel} objects of the same
+     * tile, state and type, which is baked, or baked again larger, if it
+     * does not hold enough tiles. Like any image, this may only be done on
+     * the main thread.
+     */
+    private void bake() {
+        final SpriteSheet ss = tile.getSprites().get(state);
+        final int tileWidth = Math.max(1, ss.getWidth(type));
+        final int tileHeight = Math.max(1, ss.getHeight(type));
+        blockWidth = Math.max(1, Math.min(width, MAX_BAKE / tileWidth));
+        blockHeight = Math.max(1, Math.min(height, MAX_BAKE / tileHeight));
+        bakeKey = tile.getClass().getName() + ' ' + state + ' ' + type;
+        Block block = BLOCKS.get(bakeKey);
+        if (block == null || block.columns < blockWidth || block.rows < blockHeight) {
+            final int columns = block == null ? blockWidth : Math.max(block.columns, blockWidth);
+            final int rows = block == null ? blockHeight : Math.max(block.rows, blockHeight);
+            if (block != null) {
+                // Every other Tessel of this kind sees that the block has
+                // changed before it next draws. The old block may still be
+                // in the sprite batch this frame, so it is only destroyed
+                // with the others when the level changes
+                RETIRED.add(block);
+            }
+            final Image frame = ss.get(type).getImage();
+            Image image = null;
+            try {
+                image = new Image(tileWidth * columns, tileHeight * rows);
+                final Graphics bg = image.getGraphics();
+                for (int w = 0; w < columns; w++) {
+                    for (int h = 0; h < rows; h++) {
+                        bg.drawImage(frame, tileWidth * w, tileHeight * h);
                     }
                 }
+                bg.flush();
+            } catch (SlickException ex) {
+                fail("Could not bake the Tessel: " + bakeKey, ex);
             }
+            block = new Block(image, columns, rows);
+            BLOCKS.put(bakeKey, block);
         }
+        baked = block;
+        final int wholeWidth = blockWidth * tileWidth;
+        final int wholeHeight = blockHeight * tileHeight;
+        final int cutWidth = (width % blockWidth == 0 ? blockWidth : width % blockWidth) * tileWidth;
+        final int cutHeight = (height % blockHeight == 0 ? blockHeight : height % blockHeight) * tileHeight;
+        blocks = new Image[4];
+        blocks[0] = block.image.getSubImage(0, 0, wholeWidth, wholeHeight);
+        blocks[1] = block.image.getSubImage(0, 0, cutWidth, wholeHeight);
+        blocks[2] = block.image.getSubImage(0, 0, wholeWidth, cutHeight);
+        blocks[3] = block.image.getSubImage(0, 0, cutWidth, cutHeight);
     }
 
     /**
-     * Check if a {@code Point} is acceptably within the bounds. Used for
-     * drawing very large {@code Tessel} objects.
+     * Check if a {@code Point} is acceptably within the bounds of the
+     * screen. Used for drawing very large {@code Tessel} objects.
      *
      * @param p
      * @return
      */
     public boolean pointInBounds(Vector p) {
+        return pointInBounds(p.x, p.y);
+    }
+
+    /**
+     * Check if a point is acceptably within the bounds of the screen.
+     *
+     * @param px
+     * @param py
+     * @return
+     */
+    public boolean pointInBounds(double px, double py) {
+        final Rect screen = game.getScreen();
         final double tileWidth = tile.getSprites().get(state).getWidth();
         final double tileHeight = tile.getSprites().get(state).getHeight();
-        final boolean xOverlap = p.x > -tileWidth && p.x < border.width + tileWidth;
-        final boolean yOverlap = p.y > -tileHeight && p.y < border.height + tileHeight;
+        final boolean xOverlap = px > screen.getMinX() - tileWidth && px < screen.getMaxX() + tileWidth;
+        final boolean yOverlap = py > screen.getMinY() - tileHeight && py < screen.getMaxY() + tileHeight;
         return xOverlap && yOverlap;
     }
 
@@ -291,15 +452,16 @@ public class Tessel implements Updateable, Drawable, Platform {
      *
      */
     public void checkBounds() {
+        final Rect screen = game.getScreen();
         if (getHitbox().intersects(screen)) {
             isInBounds();
-        } else if (x + getOffsetX() > screen.width) {
+        } else if (x + getOffsetX() > screen.getMaxX()) {
             isOutOfBounds(RIGHT);
-        } else if (x + getOffsetX() + getWidth() < 0) {
+        } else if (x + getOffsetX() + getWidth() < screen.getMinX()) {
             isOutOfBounds(LEFT);
-        } else if (y + getOffsetY() > screen.height) {
+        } else if (y + getOffsetY() > screen.getMaxY()) {
             isOutOfBounds(DOWN);
-        } else if (y + getOffsetY() + getHeight() < 0) {
+        } else if (y + getOffsetY() + getHeight() < screen.getMinY()) {
             isOutOfBounds(UP);
         }
     }
@@ -330,17 +492,22 @@ public class Tessel implements Updateable, Drawable, Platform {
     }
 
     /**
-     * Get the hitbox representing this {@code Tessel}.
+     * Get the hitbox representing this {@code Tessel}. It is only worked
+     * out again when the {@code Tessel} has changed.
      *
      * @return
      */
     @Override
     @SuppressWarnings("LocalVariableHidesMemberVariable")
     public Rect getHitbox() {
-        Rect hitbox = new Rect();
-        double x = this.x + getOffsetX();
-        double y = this.y + getOffsetY();
-        hitbox.setRect(x, y, getWidth(), getHeight());
+        synchronized (hitbox) {
+            if (hitbox.isStale(x, y, state, type, null)) {
+                double x = this.x + getOffsetX();
+                double y = this.y + getOffsetY();
+                hitbox.set(x, y, getWidth(), getHeight());
+                hitbox.validate(this.x, this.y, state, type, null);
+            }
+        }
         return hitbox;
     }
 
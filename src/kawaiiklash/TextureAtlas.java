@@ -0,0 +1,189 @@
+package kawaiiklash;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import static kawaiiklash.Utility.fail;
+import org.newdawn.slick.Image;
+import org.newdawn.slick.SlickException;
+
+/**
+ * The {@code TextureAtlas} hands out the sprite frames that were packed
+ * onto atlas pages by the {@link AtlasPacker}. Each frame is a sub-image
+ * of its page, so all the frames on a page share one texture. Pages are
+ * loaded the first time one of their frames is needed.
+ * <p>
+ * If the atlas has not been built, the atlas is empty and every frame is
+ * loaded from its own file, as before. The build packs the atlas again
+ * before the resources are copied whenever a frame changes, so the pages
+ * always match the frame files.
+ *
+ * @author Jeff Niu
+ */
+public class TextureAtlas {
+
+    /**
+     * The folder of the atlas, relative to the resources.
+     */
+    public static final String FOLDER = "sprites/atlas";
+
+    /**
+     * The name of the index file in the atlas folder.
+     */
+    public static final String INDEX = "atlas.xml";
+
+    /**
+     * The single instance of this class.
+     */
+    private static TextureAtlas atlas;
+
+    /**
+     * Get the single instance of this class.
+     *
+     * @return
+     */
+    public static TextureAtlas get() {
+        if (atlas == null) {
+            atlas = new TextureAtlas();
+        }
+        return atlas;
+    }
+
+    /**
+     * Get the file name of an atlas page.
+     *
+     * @param page
+     * @return
+     */
+    public static String pageName(int page) {
+        return "page" + page + ".png";
+    }
+
+    /**
+     * Where a frame is in the atlas.
+     */
+    private static class Region {
+
+        private final int page;
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        private Region(int page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+    }
+
+    /**
+     * The regions of the frames, by the reference of the frame image.
+     */
+    private final HashMap<String, Region> regions;
+
+    /**
+     * The references of the pages, and the pages that have been loaded.
+     */
+    private final List<String> pageRefs;
+    private final List<Image> pages;
+
+    /**
+     * Read the atlas index, if there is one.
+     */
+    private TextureAtlas() {
+        regions = new HashMap<>(2000);
+        pageRefs = new ArrayList<>();
+        pages = new ArrayList<>();
+        final URL url = getClass().getClassLoader().getResource(FOLDER + "/" + INDEX);
+        if (url != null) {
+            readIndex(url);
+        }
+    }
+
+    private void readIndex(URL url) {
+        try (InputStream in = url.openStream()) {
+            final XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamReader.START_ELEMENT) {
+                    continue;
+                }
+                final String image = reader.getAttributeValue(null, "image");
+                switch (reader.getLocalName()) {
+                    case "page":
+                        pageRefs.add(FOLDER + "/" + image);
+                        pages.add(null);
+                        break;
+                    case "frame":
+                        regions.put(image, new Region(
+                                Integer.parseInt(reader.getAttributeValue(null, "page")),
+                                Integer.parseInt(reader.getAttributeValue(null, "x")),
+                                Integer.parseInt(reader.getAttributeValue(null, "y")),
+                                Integer.parseInt(reader.getAttributeValue(null, "w")),
+                                Integer.parseInt(reader.getAttributeValue(null, "h"))));
+                        break;
+                }
+            }
+            reader.close();
+        } catch (IOException | XMLStreamException | NumberFormatException ex) {
+            fail("Could not read the texture atlas index: " + url, ex);
+        }
+    }
+
+    /**
+     * Check whether a frame was packed into the atlas.
+     *
+     * @param ref the reference of the frame image
+     * @return
+     */
+    public boolean contains(String ref) {
+        return regions.containsKey(ref);
+    }
+
+    /**
+     * Get the reference of the page that a frame was packed onto.
+     *
+     * @param ref the reference of the frame image
+     * @return the reference of the page, or null if the frame is not in
+     * the atlas
+     */
+    public String getPageRef(String ref) {
+        final Region r = regions.get(ref);
+        return r != null ? pageRefs.get(r.page) : null;
+    }
+
+    /**
+     * Get a frame from the atlas, loading its page if needed. Like any
+     * image, this may only be called from the main thread.
+     *
+     * @param ref the reference of the frame image
+     * @return the frame, or null if it is not in the atlas
+     */
+    public Image getFrame(String ref) {
+        final Region r = regions.get(ref);
+        if (r == null) {
+            return null;
+        }
+        Image page = pages.get(r.page);
+        if (page == null) {
+            try {
+                page = AssetPreloader.get().newImage(pageRefs.get(r.page));
+            } catch (SlickException ex) {
+                fail("Could not load the texture atlas page: " + pageRefs.get(r.page), ex);
+                return null;
+            }
+            pages.set(r.page, page);
+        }
+        return page.getSubImage(r.x, r.y, r.width, r.height);
+    }
+
+}
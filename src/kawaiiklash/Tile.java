@@ -24,6 +24,8 @@ public abstract class Tile implements Drawable, Updateable, Platform {
 
     private boolean inBounds;
 
+    private final Hitbox hitbox;
+
     {
         SpriteLoader loader = SpriteLoader.get();
         String s = Bank.getSpriteRef(this);
@@ -37,25 +39,26 @@ public abstract class Tile implements Drawable, Updateable, Platform {
         state = 0;
         type = 0;
         inBounds = true;
+        hitbox = new Hitbox();
     }
 
     @Override
     public void update(int dt) {
-        Rect gScreen = game.getScreen();
-        Rect screen = new Rect(-100.0, -100.0, gScreen.getWidth() + 200.0, gScreen.getHeight() + 200.0);
-        inBounds = screen.intersects(getHitbox());
+        Rect screen = game.getScreen();
+        inBounds = getHitbox().intersects(screen.getX() - 100.0, screen.getY() - 100.0, screen.getWidth() + 200.0, screen.getHeight() + 200.0);
         updateState(dt);
     }
 
     @Override
     public Rect getHitbox() {
-        SpriteSheet ss = sprites.get(state);
-        Rect r = new Rect();
-        r.x = x + ss.getOffsetX(type);
-        r.y = y + ss.getOffsetY(type);
-        r.width = ss.getWidth(type);
-        r.height = ss.getHeight(type);
-        return r;
+        synchronized (hitbox) {
+            if (hitbox.isStale(x, y, state, type, null)) {
+                SpriteSheet ss = sprites.get(state);
+                hitbox.set(x + ss.getOffsetX(type), y + ss.getOffsetY(type), ss.getWidth(type), ss.getHeight(type));
+                hitbox.validate(x, y, state, type, null);
+            }
+        }
+        return hitbox;
     }
 
     public abstract void updateState(int dt);
@@ -0,0 +1,91 @@
+package kawaiiklash;
+
+import org.newdawn.slick.Color;
+
+/**
+ * A {@code Tint} is the color and transparency that an {@code Entity} is
+ * drawn with, on top of the filters of its sprites. Since the sprite
+ * sheets of an {@code Entity} may be shared, effects such as fading and
+ * flashing change the {@code Tint} of the {@code Entity} instead of the
+ * filters of its sprites, and the {@link SpriteBatch} applies it when the
+ * sprites are drawn.
+ * <p>
+ * The color and the transparency are kept apart, so that an
+ * {@code Entity} may flash while it fades.
+ *
+ * @author Jeff Niu
+ */
+public class Tint {
+
+    private float red;
+    private float green;
+    private float blue;
+    private float alpha;
+
+    /**
+     * Create a clear {@code Tint}.
+     */
+    public Tint() {
+        clear();
+    }
+
+    /**
+     * Set the color to white and the transparency to opaque, so that the
+     * sprites are drawn as they are.
+     */
+    public final void clear() {
+        clearColor();
+        alpha = 1.0f;
+    }
+
+    /**
+     * Set the color to white, leaving the transparency alone.
+     */
+    public void clearColor() {
+        red = 1.0f;
+        green = 1.0f;
+        blue = 1.0f;
+    }
+
+    /**
+     * Set the color to that of a {@code Color}, leaving the transparency
+     * alone.
+     *
+     * @param color
+     */
+    public void setColor(Color color) {
+        red = color.r;
+        green = color.g;
+        blue = color.b;
+    }
+
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    /**
+     * Check whether the {@code Tint} leaves the sprites as they are.
+     *
+     * @return
+     */
+    public boolean isClear() {
+        return red == 1.0f && green == 1.0f && blue == 1.0f && alpha == 1.0f;
+    }
+
+    public float getRed() {
+        return red;
+    }
+
+    public float getGreen() {
+        return green;
+    }
+
+    public float getBlue() {
+        return blue;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+}
@@ -18,7 +18,7 @@ public class Tombstone extends Entity {
     public Tombstone(Game game, double x) {
         super(game);
         setX(x);
-        setY(-getHeight());
+        setY(game.getScreen().getY() - getHeight());
         setDx(0);
         setDy(900);
         setDdx(0);
@@ -60,19 +60,14 @@ public class Tombstone extends Entity {
     }
 
     @Override
-    public Rect getHitbox() {
-        SpriteSheet ss = getSprites().get(HITBOX);
-        Rect box = new Rect();
-        box.x = getX() + ss.getOffsetX();
-        box.y = getY() + ss.getOffsetY();
-        box.width = ss.getWidth();
-        box.height = ss.getHeight();
-        return box;
+    protected void updateHitbox(Hitbox box) {
+        final SpriteSheet ss = getSprites().get(HITBOX);
+        box.set(getX() + ss.getOffsetX(), getY() + ss.getOffsetY(), ss.getWidth(), ss.getHeight());
     }
 
     @Override
     public void collidedWith(Collideable other) {
-        if (other instanceof Platform && getState() == FALL && getCollideDir(other) == Direction.UP) {
+        if (other instanceof Platform && getState() == FALL && getGame().getCollideDir(this, other) == Direction.UP) {
             Rect tile = other.getHitbox();
             SpriteSheet ss = getSprites().get(HITBOX);
             setY(tile.getY() - ss.getHeight() - ss.getOffsetY());
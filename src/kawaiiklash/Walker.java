@@ -33,7 +33,7 @@ public abstract class Walker extends Monster {
     public void doLogic() {
         for (Platform platform : platforms) {
             Rect tile = platform.getHitbox();
-            Direction dir = getCollideDir(tile);
+            Direction dir = getGame().getCollideDir(this, platform);
             Direction dirX = getDirX();
             Direction dirY = getDirY();
             double x = getX();